@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of whole {@code jakartalemon --version} and {@code jakartalemon createproject}
+ * processes, started from the jar with dependencies, with and without the class-data-sharing
+ * archive. Both files are created by {@code mvn -Pcds install}.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private List<String> command;
+    private Path workPath;
+    private int counter;
+
+    @Setup
+    public void setUp() throws IOException {
+        workPath = Files.createTempDirectory("jakartalemon");
+        var target = Path.of(System.getProperty("jakartalemon.target", "target"));
+        var jar = target.resolve("jakarta-lemon-cli-1.0-SNAPSHOT-jar-with-dependencies.jar");
+        var archive = target.resolve("jakartalemon.jsa");
+        if (!Files.exists(jar) || (cds && !Files.exists(archive))) {
+            throw new IllegalStateException("%s or %s not found, run mvn -Pcds install first"
+                .formatted(jar, archive));
+        }
+        command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(List.of("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-jar", jar.
+            toString()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(workPath)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int version() throws Exception {
+        return run("--version");
+    }
+
+    @Benchmark
+    public int createProject() throws Exception {
+        return run("createproject", workPath.resolve("project" + counter++).toString(),
+            "--arch=HEXA", "--groupId=com.example", "--artifactId=startup");
+    }
+
+    private int run(String... args) throws Exception {
+        var processCommand = new ArrayList<>(command);
+        processCommand.addAll(List.of(args));
+        var process = new ProcessBuilder(processCommand)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        return process.waitFor();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Scan of a reactor of 5,000 modules, in folders of 100, each one depending on three of the 300
+ * modules before it, followed by the construction of its module graph, parsing every pom.xml or
+ * reading the unchanged ones from a {@link PomIndex}. The setup checks that every module and
+ * dependency is found, and builds the index.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReactorScannerBenchmark {
+
+    private static final int MODULES = 5000;
+    private static final int DEPENDENCIES = 3;
+    private static final String POM = """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+            <modelVersion>4.0.0</modelVersion>
+            <parent>
+                <groupId>com.example</groupId>
+                <artifactId>root</artifactId>
+                <version>1.0</version>
+            </parent>
+            <artifactId>%s</artifactId>
+            <dependencies>%s
+            </dependencies>
+        </project>
+        """;
+    private static final String DEPENDENCY = """
+
+                <dependency>
+                    <groupId>${project.groupId}</groupId>
+                    <artifactId>%s</artifactId>
+                    <version>${project.version}</version>
+                </dependency>""";
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime()
+        .availableProcessors());
+    private Path rootPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        rootPath = Files.createTempDirectory("jakartalemon");
+        Files.writeString(rootPath.resolve("pom.xml"), """
+            <project>
+                <groupId>com.example</groupId>
+                <artifactId>root</artifactId>
+                <version>1.0</version>
+                <packaging>pom</packaging>
+            </project>
+            """);
+        var random = new Random(1);
+        for (var i = 0; i < MODULES; i++) {
+            var dependencies = new StringBuilder();
+            for (var j = 0; j < Math.min(i, DEPENDENCIES); j++) {
+                dependencies.append(DEPENDENCY.formatted(module(i - 1 - random.nextInt(Math.min(
+                    i, 300)))));
+            }
+            var modulePath = rootPath.resolve("group-" + i / 100).resolve(module(i));
+            Files.createDirectories(modulePath.resolve("src/main/java/com/example"));
+            Files.writeString(modulePath.resolve("pom.xml"), POM.formatted(module(i),
+                dependencies));
+        }
+        var graph = scan();
+        if (graph.size() != MODULES + 1 || graph.getEdges() < MODULES) {
+            throw new IllegalStateException("%d modules and %d edges found".formatted(graph
+                .size(), graph.getEdges()));
+        }
+        var index = PomIndex.open(rootPath);
+        ReactorScanner.scan(rootPath, pool, index);
+        index.save();
+        if (indexedScan().getEdges() != graph.getEdges()) {
+            throw new IllegalStateException("the index does not match the parsed files");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public ModuleGraph scan() {
+        return ModuleGraph.of(ReactorScanner.scan(rootPath, pool).modules());
+    }
+
+    @Benchmark
+    public ModuleGraph indexedScan() {
+        var index = PomIndex.open(rootPath);
+        var graph = ModuleGraph.of(ReactorScanner.scan(rootPath, pool, index).modules());
+        if (index.getMisses() > 0) {
+            throw new IllegalStateException(index.getMisses() + " pom.xml parsed again");
+        }
+        return graph;
+    }
+
+    private static String module(int index) {
+        return "module-%04d".formatted(index);
+    }
+}
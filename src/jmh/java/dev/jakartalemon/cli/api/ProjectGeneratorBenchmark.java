@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.api;
+
+import dev.jakartalemon.cli.output.ProjectOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Projects generated per second by {@link ProjectGenerator} in one JVM, from one thread and from
+ * eight threads at the same time. Projects are written to memory, so the numbers measure the
+ * generator and not the disk. Every result is checked: all the modules must be created, and the
+ * root pom.xml must carry the artifactId of its own project, so a state leaking between threads
+ * fails the run.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class ProjectGeneratorBenchmark {
+
+    private final AtomicInteger projects = new AtomicInteger();
+    private int modules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var output = new MemoryOutput();
+        modules = generate(output).poms().size();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public GenerationResult oneThread(Target target) throws Exception {
+        return generateAndCheck(target.output);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public GenerationResult eightThreads(Target target) throws Exception {
+        return generateAndCheck(target.output);
+    }
+
+    private GenerationResult generateAndCheck(MemoryOutput output) throws Exception {
+        output.files.clear();
+        var result = generate(output);
+        if (!result.isSuccessful() || result.poms().size() != modules) {
+            throw new IllegalStateException("incomplete project: " + result);
+        }
+        var artifactId = result.projectPath().getFileName().toString();
+        var rootPom = new String(output.files.get(result.projectPath().resolve("pom.xml")),
+            StandardCharsets.UTF_8);
+        if (!rootPom.contains("<artifactId>" + artifactId + "</artifactId>")) {
+            throw new IllegalStateException("%s got the pom.xml of another project".formatted(
+                artifactId));
+        }
+        return result;
+    }
+
+    private GenerationResult generate(MemoryOutput output) throws Exception {
+        var artifactId = "project-" + projects.incrementAndGet();
+        return ProjectGenerator.getInstance().generate(ProjectOptions.builder()
+            .projectPath(Path.of("projects", artifactId))
+            .groupId("com.example")
+            .artifactId(artifactId)
+            .build(), output);
+    }
+
+    @State(Scope.Thread)
+    public static class Target {
+
+        private final MemoryOutput output = new MemoryOutput();
+    }
+
+    /**
+     * Keeps the written files in memory. Modules of a project are written from the threads of the
+     * generator, so the map is concurrent.
+     */
+    private static class MemoryOutput implements ProjectOutput {
+
+        private final Map<Path, byte[]> files = new ConcurrentHashMap<>();
+
+        @Override
+        public void createDirectories(Path directory) {
+        }
+
+        @Override
+        public boolean write(Path file, byte[] content) {
+            files.put(file, content);
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
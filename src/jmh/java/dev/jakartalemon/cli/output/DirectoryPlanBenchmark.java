@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folders of a module with the four Maven source folders and the packages of the hexagonal
+ * domain module: one {@link Files#createDirectories} per folder, as before, against a
+ * {@link DirectoryPlan}. The setup checks the call budget of the plan, one call for the module
+ * folder plus one per distinct directory.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectoryPlanBenchmark {
+
+    private static final List<String> DIRECTORIES = List.of("src/main/java",
+        "src/main/resources", "src/test/java", "src/test/resources",
+        "src/main/java/com/example/demo",
+        "src/main/java/com/example/demo/domain",
+        "src/main/java/com/example/demo/domain/model",
+        "src/main/java/com/example/demo/domain/repository",
+        "src/main/java/com/example/demo/domain/service");
+
+    /**
+     * src, main, java, resources, test, java, resources, and the five package folders plus com,
+     * example, demo.
+     */
+    private static final int EXPECTED_DIRECTORIES = 14;
+
+    private Path workPath;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void checkBudget() throws IOException {
+        var module = Files.createTempDirectory("jakartalemon");
+        try {
+            var plan = planFor(module);
+            var calls = plan.create(ProjectOutput.fileSystem(false));
+            if (plan.size() != EXPECTED_DIRECTORIES || calls != EXPECTED_DIRECTORIES + 1) {
+                throw new IllegalStateException("%d directories in %d calls".formatted(plan.size(),
+                    calls));
+            }
+        } finally {
+            delete(module);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        workPath = Files.createTempDirectory("jakartalemon");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        delete(workPath);
+    }
+
+    @Benchmark
+    public Path createDirectoriesPerFolder() throws IOException {
+        var module = workPath.resolve("module" + counter++);
+        Files.createDirectories(module);
+        for (var directory : DIRECTORIES) {
+            Files.createDirectories(module.resolve(directory));
+        }
+        return module;
+    }
+
+    @Benchmark
+    public int directoryPlan() throws IOException {
+        return planFor(workPath.resolve("module" + counter++))
+            .create(ProjectOutput.fileSystem(false));
+    }
+
+    private static DirectoryPlan planFor(Path module) {
+        var plan = new DirectoryPlan(module);
+        DIRECTORIES.forEach(plan::add);
+        return plan;
+    }
+
+    private static void delete(Path path) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (var walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(paths::add);
+        }
+        for (var each : paths) {
+            Files.delete(each);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import dev.jakartalemon.cli.project.GenerationPlan;
+import dev.jakartalemon.cli.project.constants.Archetype;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hexagonal scaffold written straight into its folder without flushing, as the default output
+ * does, against a {@link StagedOutput} committed with each {@link StagedOutput.Sync} mode.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class StagedOutputBenchmark {
+
+    private final GenerationPlan plan = GenerationPlan.forArchetype(Archetype.HEXA).orElseThrow();
+
+    private Path workPath;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        workPath = Files.createTempDirectory(Path.of(System.getProperty("user.dir"), "target"),
+            "jakartalemon");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(workPath)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Path direct() {
+        var projectPath = workPath.resolve("project" + counter++);
+        plan.generate(projectPath, "com.example", "benchmark", "com.example.benchmark",
+            ProjectOutput.fileSystem(false));
+        return projectPath;
+    }
+
+    @Benchmark
+    public Path staged(Staging staging) throws IOException {
+        var projectPath = workPath.resolve("project" + counter++);
+        try (var output = StagedOutput.open(projectPath, staging.sync)) {
+            plan.generate(projectPath, "com.example", "benchmark", "com.example.benchmark",
+                output);
+            output.commit();
+        }
+        return projectPath;
+    }
+
+    /**
+     * Sync mode of the staged output, kept apart so the direct benchmark runs once.
+     */
+    @State(Scope.Thread)
+    public static class Staging {
+
+        @Param({"NONE", "PER_FILE", "GROUP"})
+        private StagedOutput.Sync sync;
+    }
+}
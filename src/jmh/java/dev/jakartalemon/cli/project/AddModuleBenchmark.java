@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.model.MavenPom;
+import dev.jakartalemon.cli.model.PomModel;
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+import dev.jakartalemon.cli.util.PomUtil;
+import dev.jakartalemon.cli.util.PomWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Adding a module to a reactor whose parent lists {@code modules} modules: the module is created
+ * the same way in both cases, and the parent is either patched in a streaming pass, as
+ * {@code addmodule} does, or loaded into a DOM and saved again.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class AddModuleBenchmark {
+
+    private static final String MODULE = "added";
+
+    @Param({"10", "5000"})
+    private int modules;
+
+    private Path reactorPath;
+    private byte[] parentPom;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        reactorPath = Files.createTempDirectory("jakartalemon");
+        parentPom = PomWriter.render(new MavenPom("4.0.0", null, null, "com.example", "reactor",
+            "1.0-SNAPSHOT", "pom", IntStream.range(0, modules)
+                .mapToObj(i -> "module-%04d".formatted(i))
+                .toList(), null, null));
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() throws Exception {
+        deleteModule();
+        Files.write(reactorPath.resolve("pom.xml"), parentPom);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        deleteModule();
+        Files.deleteIfExists(reactorPath.resolve("pom.xml"));
+        Files.deleteIfExists(reactorPath);
+    }
+
+    @Benchmark
+    public Path patchParent() throws Exception {
+        return AddModuleCommand.addModule(reactorPath, MODULE, "jar", null, List.of());
+    }
+
+    @Benchmark
+    public void documentParent() throws Exception {
+        var pomModel = PomModel.builder()
+            .parent(Map.of("groupId", "com.example", "artifactId", "reactor", "version",
+                "1.0-SNAPSHOT"))
+            .artifactId(MODULE)
+            .packaging("jar")
+            .build();
+        var modulePath = reactorPath.resolve(MODULE);
+        PomUtil.getInstance().createPom(modulePath, pomModel).orElseThrow();
+        PomUtil.getInstance().createJavaProjectStructure(modulePath, "com.example.added")
+            .orElseThrow();
+        var parentPath = reactorPath.resolve("pom.xml");
+        var document = DocumentXmlUtil.openDocument(parentPath).orElseThrow();
+        DocumentXmlUtil.createElement(document, "/project/modules", "module").orElseThrow()
+            .setTextContent(MODULE);
+        DocumentXmlUtil.saveDocument(parentPath, document);
+    }
+
+    private void deleteModule() throws IOException {
+        var modulePath = reactorPath.resolve(MODULE);
+        if (Files.exists(modulePath)) {
+            try (var paths = Files.walk(modulePath)) {
+                for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.model.Blueprint;
+import dev.jakartalemon.cli.model.PomModel;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.project.constants.Archetype;
+import dev.jakartalemon.cli.util.PomUtil;
+import jakarta.json.JsonObject;
+import jakarta.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full hexagonal scaffold from its compiled plan, the compilation of the plan itself, and a single
+ * {@link PomUtil#createPom(Path, PomModel)}, into a temporary directory. Every invocation writes
+ * into a new folder, the folders are removed after each iteration.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class GenerationPlanBenchmark {
+
+    private final GenerationPlan plan = GenerationPlan.forArchetype(Archetype.HEXA).orElseThrow();
+    private Blueprint blueprint;
+    private Path workPath;
+    private PomModel pomModel;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void loadBlueprint() throws Exception {
+        try (var jsonb = JsonbBuilder.create();
+            var is = GenerationPlan.class.getResourceAsStream("/blueprints/hexa.json")) {
+            blueprint = jsonb.fromJson(is, Blueprint.class);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        workPath = Files.createTempDirectory("jakartalemon");
+        pomModel = PomModel.builder()
+            .groupId("com.example")
+            .artifactId("benchmark")
+            .version("1.0-SNAPSHOT")
+            .packaging("jar")
+            .dependencies(List.of(Map.of("groupId", "org.projectlombok",
+                "artifactId", "lombok",
+                "version", "1.18.28")))
+            .properties(Map.of("maven.compiler.release", "17"))
+            .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(workPath)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public JsonObject hexagonalProject() {
+        return plan.generate(workPath.resolve("project" + counter++), "com.example", "benchmark",
+            "com.example.benchmark", ProjectOutput.fileSystem(false));
+    }
+
+    @Benchmark
+    public GenerationPlan compilePlan() {
+        return GenerationPlan.compile(blueprint);
+    }
+
+    @Benchmark
+    public Optional<Path> createPom() {
+        return PomUtil.getInstance().createPom(workPath.resolve("module" + counter++), pomModel);
+    }
+}
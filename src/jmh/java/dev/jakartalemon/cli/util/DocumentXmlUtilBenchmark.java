@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building, serializing, querying and parsing POM documents. The {@code dependencies} parameter
+ * sets the size of the POM: 10 is a typical module, 4000 is a POM of about 20k lines.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentXmlUtilBenchmark {
+
+    @Param({"10", "4000"})
+    private int dependencies;
+
+    private Path pomPath;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pomPath = Files.createTempFile("jakartalemon", ".xml");
+        document = buildDocument();
+        DocumentXmlUtil.saveDocument(pomPath, document);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pomPath);
+    }
+
+    @Benchmark
+    public ElementBuilder elementBuilderTree() {
+        return projectBuilder();
+    }
+
+    @Benchmark
+    public Document elementBuilderBuild() throws Exception {
+        return buildDocument();
+    }
+
+    @Benchmark
+    public void saveDocument() {
+        DocumentXmlUtil.saveDocument(pomPath, document);
+    }
+
+    @Benchmark
+    public List<Element> listElementsByFilter() throws Exception {
+        return DocumentXmlUtil.listElementsByFilter(document,
+            "/project/dependencies/dependency[scope='test']");
+    }
+
+    @Benchmark
+    public Optional<Element> streamElementsByFilter() throws Exception {
+        return DocumentXmlUtil.streamElementsByFilter(document,
+            "/project/dependencies/dependency[scope='test']").findFirst();
+    }
+
+    @Benchmark
+    public Optional<Document> openDocument() {
+        return DocumentXmlUtil.openDocument(pomPath);
+    }
+
+    private Document buildDocument() throws Exception {
+        var newDocument = DocumentXmlUtil.newDocument();
+        newDocument.appendChild(projectBuilder().build(newDocument));
+        return newDocument;
+    }
+
+    private ElementBuilder projectBuilder() {
+        var project = ElementBuilder.newInstance("project")
+            .addAttribute("xmlns", "http://maven.apache.org/POM/4.0.0")
+            .addChild(ElementBuilder.newInstance("modelVersion").setTextContent("4.0.0"))
+            .addChild(ElementBuilder.newInstance("groupId").setTextContent("com.example"))
+            .addChild(ElementBuilder.newInstance("artifactId").setTextContent("benchmark"))
+            .addChild(ElementBuilder.newInstance("version").setTextContent("1.0-SNAPSHOT"));
+        var dependenciesBuilder = ElementBuilder.newInstance("dependencies");
+        for (var i = 0; i < dependencies; i++) {
+            dependenciesBuilder.addChild(ElementBuilder.newInstance("dependency")
+                .addChild(ElementBuilder.newInstance("groupId").setTextContent("org.example"))
+                .addChild(ElementBuilder.newInstance("artifactId").setTextContent("lib-" + i))
+                .addChild(ElementBuilder.newInstance("version").setTextContent("1.0." + i))
+                .addChild(ElementBuilder.newInstance("scope").setTextContent(
+                    i % 2 == 0 ? "compile" : "test")));
+        }
+        return project.addChild(dependenciesBuilder);
+    }
+}
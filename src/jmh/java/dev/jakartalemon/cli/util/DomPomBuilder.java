@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
+
+import dev.jakartalemon.cli.model.Coordinates;
+import dev.jakartalemon.cli.model.MavenPom;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import java.util.Map;
+
+/**
+ * The DOM path that rendered typed pom.xml files before {@link PomWriter}: each field becomes a
+ * DOM element, and the document is serialized by the strip transformer. Kept as the reference of
+ * the benchmarks.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class DomPomBuilder {
+
+    private DomPomBuilder() {
+    }
+
+    static byte[] render(MavenPom pom) throws ParserConfigurationException,
+        TransformerException {
+        return DocumentXmlUtil.renderDocument(build(pom), Map.of());
+    }
+
+    static Document build(MavenPom pom) throws ParserConfigurationException {
+        var pomXml = DocumentXmlUtil.newDocument();
+        var project = pomXml.createElement("project");
+        project.setAttribute("xmlns", "http://maven.apache.org/POM/4.0.0");
+        project.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        project.setAttribute("xsi:schemaLocation",
+            "http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd");
+        addText(project, "modelVersion", pom.modelVersion());
+        addText(project, GROUP_ID, pom.groupId());
+        if (pom.parent() != null) {
+            var parent = addElement(project, "parent");
+            addCoordinates(parent, pom.parent());
+            addText(parent, "relativePath", pom.parentRelativePath());
+        }
+        addText(project, VERSION, pom.version());
+        addElement(project, ARTIFACT_ID).setTextContent(pom.artifactId());
+        addElement(project, "packaging").setTextContent(pom.packaging());
+        if (pom.modules() != null) {
+            var modules = addElement(project, "modules");
+            pom.modules().forEach(module -> addText(modules, "module", module));
+        }
+        if (pom.dependencies() != null) {
+            var dependencies = addElement(project, "dependencies");
+            for (var dependency : pom.dependencies()) {
+                var element = addElement(dependencies, "dependency");
+                addCoordinates(element, dependency.coordinates());
+                addText(element, "type", dependency.type());
+                addText(element, "classifier", dependency.classifier());
+                addText(element, "scope", dependency.scope());
+                addText(element, "systemPath", dependency.systemPath());
+                addText(element, "optional", dependency.optional());
+            }
+        }
+        if (pom.properties() != null) {
+            var properties = addElement(project, "properties");
+            pom.properties().forEach((name, value) -> addText(properties, name, value));
+        }
+        pomXml.appendChild(project);
+        return pomXml;
+    }
+
+    private static void addCoordinates(Element parent, Coordinates coordinates) {
+        addText(parent, GROUP_ID, coordinates.groupId());
+        addText(parent, ARTIFACT_ID, coordinates.artifactId());
+        addText(parent, VERSION, coordinates.version());
+    }
+
+    private static Element addElement(Element parent, String name) {
+        var element = parent.getOwnerDocument().createElement(name);
+        parent.appendChild(element);
+        return element;
+    }
+
+    private static void addText(Element parent, String name, String text) {
+        if (text != null) {
+            addElement(parent, name).setTextContent(text);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Parses and creates POM documents from many threads at the same time, with the document builders
+ * reused by each thread. Every parsed POM is checked against the artifactId it was written with,
+ * so a builder shared by mistake between threads fails the run instead of only slowing it down.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class OpenDocumentConcurrencyBenchmark {
+
+    private static final int POMS = 2000;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private Path pomsPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pomsPath = Files.createTempDirectory("jakartalemon");
+        for (var i = 0; i < POMS; i++) {
+            var document = DocumentXmlUtil.newDocument();
+            var project = ElementBuilder.newInstance("project")
+                .addChild(ElementBuilder.newInstance("modelVersion").setTextContent("4.0.0"))
+                .addChild(ElementBuilder.newInstance("groupId").setTextContent("com.example"))
+                .addChild(ElementBuilder.newInstance("artifactId").setTextContent(artifactId(i)));
+            document.appendChild(project.build(document));
+            DocumentXmlUtil.saveDocument(pomPath(i), document);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(pomsPath)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Document openDocument() throws Exception {
+        var index = Math.floorMod(next.getAndIncrement(), POMS);
+        var document = DocumentXmlUtil.openDocument(pomPath(index)).orElseThrow();
+        var artifactId = DocumentXmlUtil.listElementsByFilter(document, "/project/artifactId")
+            .get(0).getTextContent();
+        if (!artifactId(index).equals(artifactId)) {
+            throw new IllegalStateException("%s parsed as %s".formatted(pomPath(index),
+                artifactId));
+        }
+        return document;
+    }
+
+    @Benchmark
+    public Document newDocument() throws Exception {
+        var document = DocumentXmlUtil.newDocument("project");
+        if (document.getDocumentElement().getNextSibling() != null) {
+            throw new IllegalStateException("new document is not empty");
+        }
+        return document;
+    }
+
+    private Path pomPath(int index) {
+        return pomsPath.resolve("pom-%d.xml".formatted(index));
+    }
+
+    private static String artifactId(int index) {
+        return "module-" + index;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding a dependency to an existing POM: through the DOM, as {@code openDocument},
+ * {@code createElement} and {@code saveDocument}, against a streaming {@link PomPatcher} pass.
+ * The {@code dependencies} parameter sets the size of the POM: 4000 is a POM of about 20k lines.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class PomPatcherBenchmark {
+
+    private static final Map<String, String> DEPENDENCY = Map.of("groupId", "org.example",
+        "artifactId", "added", "version", "1.0");
+
+    @Param({"10", "4000"})
+    private int dependencies;
+
+    private Path originalPath;
+    private Path pomPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        originalPath = Files.createTempFile("jakartalemon", ".xml");
+        pomPath = Files.createTempFile("jakartalemon", ".xml");
+        var document = DocumentXmlUtil.newDocument();
+        var dependenciesBuilder = ElementBuilder.newInstance("dependencies");
+        for (var i = 0; i < dependencies; i++) {
+            dependenciesBuilder.addChild(ElementBuilder.newInstance("dependency")
+                .addChild(ElementBuilder.newInstance("groupId").setTextContent("org.example"))
+                .addChild(ElementBuilder.newInstance("artifactId").setTextContent("lib-" + i))
+                .addChild(ElementBuilder.newInstance("version").setTextContent("1.0." + i)));
+        }
+        document.appendChild(ElementBuilder.newInstance("project")
+            .addChild(ElementBuilder.newInstance("modelVersion").setTextContent("4.0.0"))
+            .addChild(ElementBuilder.newInstance("artifactId").setTextContent("benchmark"))
+            .addChild(dependenciesBuilder)
+            .build(document));
+        DocumentXmlUtil.saveDocument(originalPath, document);
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() throws Exception {
+        Files.copy(originalPath, pomPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(originalPath);
+        Files.deleteIfExists(pomPath);
+    }
+
+    @Benchmark
+    public void document() throws Exception {
+        var document = DocumentXmlUtil.openDocument(pomPath).orElseThrow();
+        var dependency = DocumentXmlUtil.createElement(document, "/project/dependencies",
+            "dependency").orElseThrow();
+        for (var entry : DEPENDENCY.entrySet()) {
+            DocumentXmlUtil.createElement(document, dependency, entry.getKey(), entry.getValue());
+        }
+        DocumentXmlUtil.saveDocument(pomPath, document);
+    }
+
+    @Benchmark
+    public void patcher() throws Exception {
+        PomPatcher.newInstance().addDependency(DEPENDENCY).patch(pomPath);
+    }
+}
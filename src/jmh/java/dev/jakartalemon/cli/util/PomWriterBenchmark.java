@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.model.Coordinates;
+import dev.jakartalemon.cli.model.Dependency;
+import dev.jakartalemon.cli.model.MavenPom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-pom.xml cost of a module with a parent, twenty dependencies and ten properties: the DOM plus
+ * transformer path against {@link PomWriter}, both in memory and written to a file. The setup
+ * checks that both paths produce the same bytes.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomWriterBenchmark {
+
+    private Path pomPath;
+    private MavenPom pom;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pomPath = Files.createTempFile("jakartalemon", ".xml");
+        List<Dependency> dependencies = new ArrayList<>();
+        for (var i = 0; i < 20; i++) {
+            dependencies.add(new Dependency(Coordinates.of("org.example", "lib-" + i, "1.0." + i),
+                null, null, i % 4 == 0 ? "test" : null, null, null));
+        }
+        var properties = new TreeMap<String, String>();
+        for (var i = 0; i < 10; i++) {
+            properties.put("lib-" + i + ".version", "1.0." + i);
+        }
+        pom = new MavenPom("4.0.0", Coordinates.of("com.example", "parent", "1.0-SNAPSHOT"),
+            null, null, "benchmark & <co>", null, "jar", null, dependencies, properties);
+        if (!Arrays.equals(DomPomBuilder.render(pom), PomWriter.render(pom))) {
+            throw new IllegalStateException("PomWriter does not match the DOM output");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pomPath);
+    }
+
+    @Benchmark
+    public byte[] domTransformer() throws Exception {
+        return DomPomBuilder.render(pom);
+    }
+
+    @Benchmark
+    public byte[] pomWriter() {
+        return PomWriter.render(pom);
+    }
+
+    @Benchmark
+    public void domTransformerToFile() throws Exception {
+        Files.write(pomPath, DomPomBuilder.render(pom));
+    }
+
+    @Benchmark
+    public int pomWriterToFileChannel() throws Exception {
+        try (var channel = FileChannel.open(pomPath, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            return PomWriter.write(pom, channel);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.model.Coordinates;
+import dev.jakartalemon.cli.model.Dependency;
+import dev.jakartalemon.cli.model.MavenPom;
+import dev.jakartalemon.cli.model.PomModel;
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Models and DOM documents of a reactor of 1,000 modules, each one with a parent, three
+ * dependencies and two properties: the original path, from maps through element builders to the
+ * DOM, against {@link MavenPom} written straight into the DOM by {@link DomPomBuilder}. Run it
+ * with {@code -prof gc} to compare the bytes allocated per reactor ({@code gc.alloc.rate.norm}).
+ * The setup checks that both paths render the same pom.xml.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactorModelBenchmark {
+
+    private static final int MODULES = 1000;
+    private static final String GROUP_ID = "com.example";
+    private static final String VERSION = "1.0-SNAPSHOT";
+
+    @Setup(Level.Trial)
+    public void checkSameOutput() throws Exception {
+        for (var i : new int[]{0, 1, MODULES - 1}) {
+            var legacy = DocumentXmlUtil.renderDocument(legacyDocument(mapModel(i)), Map.of());
+            var typed = PomUtil.getInstance().renderPom(typedModel(i));
+            if (!Arrays.equals(legacy, typed)) {
+                throw new IllegalStateException("module %d renders differently".formatted(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapModels(Blackhole blackhole) throws Exception {
+        for (var i = 0; i < MODULES; i++) {
+            blackhole.consume(legacyDocument(mapModel(i)));
+        }
+    }
+
+    @Benchmark
+    public void typedModels(Blackhole blackhole) throws Exception {
+        for (var i = 0; i < MODULES; i++) {
+            blackhole.consume(DomPomBuilder.build(typedModel(i)));
+        }
+    }
+
+    private static PomModel mapModel(int index) {
+        return PomModel.builder()
+            .parent(Map.of("groupId", GROUP_ID, "artifactId", "parent", "version", VERSION))
+            .artifactId(artifactId(index))
+            .packaging("jar")
+            .dependencies(List.of(
+                Map.of("groupId", GROUP_ID, "artifactId", artifactId(index + 1), "version",
+                    VERSION),
+                Map.of("groupId", "org.projectlombok", "artifactId", "lombok", "version",
+                    "1.18.28", "scope", "provided"),
+                Map.of("groupId", "jakarta.platform", "artifactId", "jakarta.jakartaee-api",
+                    "version", "10.0.0", "scope", "provided")))
+            .properties(Map.of("maven.compiler.release", "17", "project.build.sourceEncoding",
+                "UTF-8"))
+            .build();
+    }
+
+    private static MavenPom typedModel(int index) {
+        return new MavenPom("4.0.0",
+            Coordinates.of(GROUP_ID, "parent", VERSION),
+            null,
+            null,
+            artifactId(index),
+            null,
+            "jar",
+            null,
+            List.of(Dependency.of(GROUP_ID, artifactId(index + 1), VERSION),
+                new Dependency(Coordinates.of("org.projectlombok", "lombok", "1.18.28"), null,
+                    null, "provided", null, null),
+                new Dependency(Coordinates.of("jakarta.platform", "jakarta.jakartaee-api",
+                    "10.0.0"), null, null, "provided", null, null)),
+            MavenPom.sorted(Map.of("maven.compiler.release", "17",
+                "project.build.sourceEncoding", "UTF-8")));
+    }
+
+    private static String artifactId(int index) {
+        return "module-" + index;
+    }
+
+    /**
+     * The DOM building of {@code PomUtil} before the typed model: every parent, dependency and
+     * property map is sorted into a new map, and every element goes through an
+     * {@link ElementBuilder}.
+     */
+    private static Document legacyDocument(PomModel pomModel) throws Exception {
+        var pomXml = DocumentXmlUtil.newDocument();
+        var project = ElementBuilder.newInstance("project")
+            .addAttribute("xmlns", "http://maven.apache.org/POM/4.0.0")
+            .addAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance")
+            .addAttribute("xsi:schemaLocation",
+                "http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd")
+            .addChild(ElementBuilder.newInstance("modelVersion").setTextContent(pomModel
+                .getModelVersion()));
+        var parent = ElementBuilder.newInstance("parent");
+        project.addChild(parent);
+        sorted(pomModel.getParent(), PomUtil.COORDINATES_COMPARATOR).forEach((key, value)
+            -> parent.addChild(ElementBuilder.newInstance(key).setTextContent(value)));
+        project.addChild(ElementBuilder.newInstance("artifactId").setTextContent(pomModel
+            .getArtifactId()))
+            .addChild(ElementBuilder.newInstance("packaging").setTextContent(pomModel
+                .getPackaging()));
+        var dependencies = ElementBuilder.newInstance("dependencies");
+        project.addChild(dependencies);
+        pomModel.getDependencies().forEach(dependency -> {
+            var dependencyElement = ElementBuilder.newInstance("dependency");
+            dependencies.addChild(dependencyElement);
+            sorted(dependency, PomUtil.COORDINATES_COMPARATOR).forEach((key, value)
+                -> dependencyElement.addChild(ElementBuilder.newInstance(key)
+                    .setTextContent(value)));
+        });
+        var properties = ElementBuilder.newInstance("properties");
+        project.addChild(properties);
+        sorted(pomModel.getProperties(), Comparator.naturalOrder()).forEach((key, value)
+            -> properties.addChild(ElementBuilder.newInstance(key).setTextContent(value)));
+        pomXml.appendChild(project.build(pomXml));
+        return pomXml;
+    }
+
+    private static Map<String, String> sorted(Map<String, String> map,
+        Comparator<String> comparator) {
+        var sortedMap = new TreeMap<String, String>(comparator);
+        sortedMap.putAll(map);
+        return sortedMap;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-document save cost: the original save path, which recompiled strip.xsl on every call,
+ * against {@link DocumentXmlUtil#saveDocument(Path, Document)}.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveDocumentBenchmark {
+
+    private Path pomPath;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pomPath = Files.createTempFile("jakartalemon", ".xml");
+        document = DocumentXmlUtil.newDocument();
+        var project = ElementBuilder.newInstance("project")
+            .addAttribute("xmlns", "http://maven.apache.org/POM/4.0.0")
+            .addChild(ElementBuilder.newInstance("modelVersion").setTextContent("4.0.0"))
+            .addChild(ElementBuilder.newInstance("groupId").setTextContent("com.example"))
+            .addChild(ElementBuilder.newInstance("artifactId").setTextContent("benchmark"))
+            .addChild(ElementBuilder.newInstance("version").setTextContent("1.0-SNAPSHOT"));
+        var dependencies = ElementBuilder.newInstance("dependencies");
+        for (var i = 0; i < 10; i++) {
+            dependencies.addChild(ElementBuilder.newInstance("dependency")
+                .addChild(ElementBuilder.newInstance("groupId").setTextContent("org.example"))
+                .addChild(ElementBuilder.newInstance("artifactId").setTextContent("lib-" + i))
+                .addChild(ElementBuilder.newInstance("version").setTextContent("1.0." + i)));
+        }
+        project.addChild(dependencies);
+        document.appendChild(project.build(document));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pomPath);
+    }
+
+    @Benchmark
+    public void recompiledStylesheet() throws Exception {
+        try (var fos = new FileOutputStream(pomPath.toFile());
+            var xslIs = DocumentXmlUtil.class.getResourceAsStream("/xml/strip.xsl")) {
+            var transformer = TransformerFactory.newInstance()
+                .newTransformer(new StreamSource(xslIs));
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(OutputKeys.STANDALONE, "no");
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+            document.setXmlStandalone(true);
+            transformer.transform(new DOMSource(document), new StreamResult(fos));
+        }
+    }
+
+    @Benchmark
+    public void cachedTemplates() {
+        DocumentXmlUtil.saveDocument(pomPath, document);
+    }
+}
@@ -15,11 +15,26 @@
  */
 package dev.jakartalemon.cli;
 
-import dev.jakartalemon.cli.project.CreateProjectCommand;
+import dev.jakartalemon.cli.util.Profiler;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import lombok.Getter;
+import lombok.Setter;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.HelpCommand;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.RunLast;
+import picocli.CommandLine.ScopeType;
 
 /**
  *
@@ -32,22 +47,145 @@ import picocli.CommandLine.HelpCommand;
     description = "Command line interface for manipulation of Jakarta EE projects according to the Jakarta Lemon tool.",
     resourceBundle = "messages",
     subcommands = {
-        HelpCommand.class,
-        CreateProjectCommand.class
+        HelpCommand.class
     }
 )
 public class JakartaLemonCli implements Callable<Integer> {
 
- 
+    /**
+     * Subcommands by name. They are referenced by class name so that only the invoked subcommand,
+     * and the classes it depends on, are loaded.
+     */
+    private static final Map<String, String> SUBCOMMANDS = new LinkedHashMap<>();
+    private static final Set<String> HELP_ARGUMENTS = Set.of("help", "-h", "--help");
+
+    static {
+        SUBCOMMANDS.put("createproject", "dev.jakartalemon.cli.project.CreateProjectCommand");
+        SUBCOMMANDS.put("daemon", "dev.jakartalemon.cli.daemon.DaemonCommand");
+        SUBCOMMANDS.put("analyze", "dev.jakartalemon.cli.analyze.AnalyzeCommand");
+        SUBCOMMANDS.put("watch", "dev.jakartalemon.cli.project.WatchCommand");
+        SUBCOMMANDS.put("addmodule", "dev.jakartalemon.cli.project.AddModuleCommand");
+    }
+
+    /**
+     * Directory against which relative paths of the subcommands are resolved. It is the current
+     * directory, unless the command is run by the daemon on behalf of a client.
+     */
+    @Getter
+    @Setter
+    private Path workingDirectory = Path.of("");
+
+    /**
+     * Standard output for binary content, such as an archive written with {@code -o -}. It is the
+     * standard output of the process, unless the command is run by the daemon on behalf of a
+     * client.
+     */
+    @Getter
+    @Setter
+    private OutputStream standardOutput = new FileOutputStream(FileDescriptor.out);
+
+    /**
+     * Time at which the process entered {@link #main(String...)}, used to report the JVM startup
+     * when profiling. It is {@code 0} when the command is run by the daemon.
+     */
+    @Setter
+    private long startedMillis;
+
+    @Option(
+        names = "--profile",
+        arity = "0..1",
+        fallbackValue = "TABLE",
+        scope = ScopeType.INHERIT,
+        descriptionKey = "options.profile"
+    )
+    private Profiler.Format profile;
 
     @Override
     public Integer call() throws Exception {
 
         return 0;
     }
- 
+
+    /**
+     * Creates the command line for the given arguments. If the arguments name a subcommand, only
+     * that subcommand is registered. All of them are registered only to show the help, or to
+     * suggest the closest ones when the subcommand is unknown.
+     *
+     * @param args command line arguments
+     * @return command line ready to execute the arguments
+     */
+    public static CommandLine newCommandLine(String... args) {
+        var commandLine = new CommandLine(new JakartaLemonCli());
+        var subcommand = subcommandOf(args);
+        if (subcommand.filter(SUBCOMMANDS::containsKey).isPresent()) {
+            addSubcommand(commandLine, subcommand.get());
+        } else if (subcommand.isPresent() || Arrays.stream(args).anyMatch(
+            HELP_ARGUMENTS::contains)) {
+            SUBCOMMANDS.keySet().forEach(name -> addSubcommand(commandLine, name));
+        }
+        return commandLine
+            .setCaseInsensitiveEnumValuesAllowed(true)
+            .setExecutionStrategy(JakartaLemonCli::execute);
+    }
+
+    /**
+     * Finds the subcommand of the arguments: the first one after the global options. Values of the
+     * subcommand options, such as a project named {@code daemon}, are not taken for a subcommand.
+     *
+     * @param args command line arguments
+     * @return the subcommand name, or empty if there are only global options
+     */
+    public static Optional<String> subcommandOf(String... args) {
+        for (var i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("-")) {
+                return Optional.of(args[i]);
+            }
+            if (args[i].equals("--profile") && i + 1 < args.length && isProfileFormat(args[i + 1])) {
+                i++;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isProfileFormat(String value) {
+        return Arrays.stream(Profiler.Format.values())
+            .anyMatch(format -> format.name().equalsIgnoreCase(value));
+    }
+
+    /**
+     * Runs the invoked command, inside a profile if {@code --profile} was given. The report is
+     * written to the standard error, so it does not mix with an archive sent to the standard
+     * output.
+     */
+    private static int execute(ParseResult parseResult) {
+        var cli = (JakartaLemonCli) parseResult.commandSpec().userObject();
+        if (cli.profile == null) {
+            return new RunLast().execute(parseResult);
+        }
+        var profiler = Profiler.start(cli.startedMillis);
+        try {
+            try (var phase = Profiler.phase("command")) {
+                return new RunLast().execute(parseResult);
+            }
+        } finally {
+            profiler.stop();
+            profiler.report(cli.profile, parseResult.commandSpec().commandLine().getErr());
+        }
+    }
+
+    private static void addSubcommand(CommandLine commandLine, String name) {
+        try {
+            commandLine.addSubcommand(name, Class.forName(SUBCOMMANDS.get(name)));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static void main(String... args) {
-        int exitCode = new CommandLine(new JakartaLemonCli()).execute(args);
+        var startedMillis = System.currentTimeMillis();
+        var commandLine = newCommandLine(args);
+        ((JakartaLemonCli) commandLine.getCommand()).setStartedMillis(startedMillis);
+        int exitCode = commandLine.execute(args);
         System.exit(exitCode);
     }
 
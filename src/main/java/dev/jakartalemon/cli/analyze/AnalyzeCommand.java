@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import dev.jakartalemon.cli.JakartaLemonCli;
+import jakarta.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import picocli.CommandLine;
+
+/**
+ * Scans a tree of Maven modules and reports the build critical path and the maximum useful
+ * parallelism of the reactor.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@CommandLine.Command(
+    name = "analyze",
+    resourceBundle = "messages",
+    description = "Analyze the module graph of an existing Maven tree."
+)
+public class AnalyzeCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(AnalyzeCommand.class.getName());
+
+    @CommandLine.Parameters(
+        index = "0",
+        arity = "0..1",
+        descriptionKey = "analyze.directory"
+    )
+    private Path directory = Path.of("");
+
+    @CommandLine.Option(
+        names = {"--json"},
+        descriptionKey = "analyze.json"
+    )
+    private boolean json;
+
+    @CommandLine.Option(
+        names = {"--index"},
+        descriptionKey = "analyze.index"
+    )
+    private boolean useIndex;
+
+    @CommandLine.Option(
+        names = {"--parallel"},
+        descriptionKey = "analyze.parallel"
+    )
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.ParentCommand
+    private JakartaLemonCli jakartaLemonCli;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        var root = jakartaLemonCli.getWorkingDirectory().resolve(directory);
+        if (!Files.isDirectory(root)) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "%s is not a directory".formatted(directory));
+        }
+        var start = System.nanoTime();
+        var index = useIndex ? PomIndex.open(root) : null;
+        var pool = new ForkJoinPool(Math.max(1, parallelism));
+        ReactorScanner.ScanResult scan;
+        try {
+            scan = ReactorScanner.scan(root, pool, index);
+        } finally {
+            pool.shutdown();
+        }
+        if (index != null) {
+            try {
+                index.save();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "the index could not be saved", ex);
+            }
+        }
+        var graph = ModuleGraph.of(scan.modules());
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.fine(() -> "%d pom.xml analyzed in %d ms".formatted(scan.modules().size(),
+            elapsedMillis));
+        var out = spec.commandLine().getOut();
+        if (json) {
+            out.println(toJson(graph, scan, index, elapsedMillis));
+        } else {
+            printReport(graph, scan, index, elapsedMillis);
+        }
+        out.flush();
+        return scan.failures().isEmpty() && graph.getCyclic().isEmpty() ? 0 : 1;
+    }
+
+    private void printReport(ModuleGraph graph, ReactorScanner.ScanResult scan, PomIndex index,
+        long elapsedMillis) {
+        var out = spec.commandLine().getOut();
+        out.printf("%d modules, %d dependencies between them, analyzed in %d ms%n", graph.size(),
+            graph.getEdges(), elapsedMillis);
+        if (index != null) {
+            out.printf("Index: %d pom.xml unchanged, %d parsed%n", index.getHits(), index
+                .getMisses());
+        }
+        out.printf("Critical path: %d modules%n", graph.getCriticalPath().size());
+        graph.getCriticalPath().forEach(module -> out.printf("  %s%n", module));
+        out.printf("Build levels: %d%n", graph.getLevels().size());
+        out.printf("Maximum useful parallelism: -T %d%n", graph.getMaxParallelism());
+        if (!graph.getCyclic().isEmpty()) {
+            out.printf("Modules in or behind a dependency cycle: %d%n", graph.getCyclic().size());
+            graph.getCyclic().forEach(module -> out.printf("  %s%n", module));
+        }
+        if (!graph.getDuplicates().isEmpty()) {
+            out.printf("Coordinates declared more than once: %d%n", graph.getDuplicates()
+                .size());
+            graph.getDuplicates().forEach(module -> out.printf("  %s%n", module));
+        }
+        if (!scan.failures().isEmpty()) {
+            out.printf("Unreadable pom.xml: %d%n", scan.failures().size());
+            scan.failures().forEach(failure -> out.printf("  %s%n", failure));
+        }
+    }
+
+    private static String toJson(ModuleGraph graph, ReactorScanner.ScanResult scan,
+        PomIndex index, long elapsedMillis) {
+        var levels = Json.createArrayBuilder();
+        graph.getLevels().forEach(level -> levels.add(Json.createArrayBuilder(level)));
+        var report = Json.createObjectBuilder();
+        if (index != null) {
+            report.add("index", Json.createObjectBuilder()
+                .add("unchanged", index.getHits())
+                .add("parsed", index.getMisses()));
+        }
+        return report
+            .add("modules", graph.size())
+            .add("edges", graph.getEdges())
+            .add("elapsedMillis", elapsedMillis)
+            .add("criticalPath", Json.createArrayBuilder(graph.getCriticalPath()))
+            .add("maxParallelism", graph.getMaxParallelism())
+            .add("levels", levels)
+            .add("cyclic", Json.createArrayBuilder(graph.getCyclic()))
+            .add("duplicates", Json.createArrayBuilder(graph.getDuplicates()))
+            .add("failures", Json.createArrayBuilder(scan.failures()))
+            .build()
+            .toString();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Build graph of the modules of a reactor. A module depends on its parent and on the declared
+ * dependencies that are modules of the same reactor; Maven builds it after all of them.
+ * <p>
+ * Every module is counted as one unit of build time. The critical path is the longest chain of
+ * modules that must be built one after another, so no number of threads can build the reactor in
+ * fewer steps. Building each module as soon as its dependencies are built, the largest number of
+ * modules ready at the same time is the maximum useful {@code -T}: more threads would stay idle.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class ModuleGraph {
+
+    private final Map<String, ReactorModule> modules = new LinkedHashMap<>();
+    private final Map<String, List<String>> upstream = new HashMap<>();
+    private final Set<String> duplicates = new TreeSet<>();
+    private final List<List<String>> levels = new ArrayList<>();
+    private final Set<String> cyclic = new TreeSet<>();
+    private final List<String> criticalPath = new ArrayList<>();
+    private int edges;
+
+    private ModuleGraph() {
+    }
+
+    /**
+     * Builds the graph of a set of modules.
+     *
+     * @param reactorModules modules of the reactor; when two modules have the same coordinates,
+     *                       the first one is kept
+     * @return module graph
+     */
+    public static ModuleGraph of(Collection<ReactorModule> reactorModules) {
+        var graph = new ModuleGraph();
+        for (var module : reactorModules) {
+            if (graph.modules.putIfAbsent(module.key(), module) != null) {
+                graph.duplicates.add(module.key());
+            }
+        }
+        graph.link();
+        graph.schedule();
+        return graph;
+    }
+
+    /**
+     * @return number of modules
+     */
+    public int size() {
+        return modules.size();
+    }
+
+    /**
+     * @return number of dependencies between modules of the reactor
+     */
+    public int getEdges() {
+        return edges;
+    }
+
+    /**
+     * @return coordinates found in more than one pom.xml
+     */
+    public Set<String> getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return modules that are part of a dependency cycle, or depend on one; they are left out of
+     * the levels and the critical path
+     */
+    public Set<String> getCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * Modules grouped by the step in which they can be built at the earliest. The modules of a
+     * level only depend on modules of the previous levels.
+     *
+     * @return build levels
+     */
+    public List<List<String>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * @return the longest chain of modules, from the first one to build to the last one
+     */
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * @return the largest number of modules that can be built at the same time
+     */
+    public int getMaxParallelism() {
+        return levels.stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    /**
+     * @param key {@code groupId:artifactId} of a module
+     * @return modules of the reactor the module depends on
+     */
+    public List<String> getUpstream(String key) {
+        return upstream.getOrDefault(key, List.of());
+    }
+
+    private void link() {
+        modules.forEach((key, module) -> {
+            var moduleUpstream = new TreeSet<String>();
+            if (module.parent() != null && modules.containsKey(module.parent())) {
+                moduleUpstream.add(module.parent());
+            }
+            module.dependencies().stream()
+                .filter(modules::containsKey)
+                .filter(dependency -> !dependency.equals(key))
+                .forEach(moduleUpstream::add);
+            edges += moduleUpstream.size();
+            upstream.put(key, List.copyOf(moduleUpstream));
+        });
+    }
+
+    /**
+     * Kahn's algorithm: a module is scheduled one level after the deepest module it depends on,
+     * and remembers that module to rebuild the critical path. Modules never released are in, or
+     * behind, a cycle.
+     */
+    private void schedule() {
+        Map<String, List<String>> downstream = new HashMap<>();
+        Map<String, Integer> pending = new HashMap<>();
+        upstream.forEach((key, dependencies) -> {
+            pending.put(key, dependencies.size());
+            dependencies.forEach(dependency -> downstream.computeIfAbsent(dependency,
+                ignored -> new ArrayList<>()).add(key));
+        });
+        Map<String, Integer> level = new HashMap<>();
+        Map<String, String> deepestUpstream = new HashMap<>();
+        var ready = new ArrayDeque<String>();
+        modules.keySet().stream().filter(key -> pending.get(key) == 0).forEach(key -> {
+            level.put(key, 0);
+            ready.add(key);
+        });
+        String last = null;
+        while (!ready.isEmpty()) {
+            var key = ready.poll();
+            var keyLevel = level.get(key);
+            while (levels.size() <= keyLevel) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(keyLevel).add(key);
+            if (last == null || keyLevel > level.get(last)) {
+                last = key;
+            }
+            for (var dependent : downstream.getOrDefault(key, List.of())) {
+                if (level.getOrDefault(dependent, -1) < keyLevel + 1) {
+                    level.put(dependent, keyLevel + 1);
+                    deepestUpstream.put(dependent, key);
+                }
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        modules.keySet().stream().filter(key -> pending.get(key) > 0).forEach(cyclic::add);
+        for (var key = last; key != null; key = deepestUpstream.get(key)) {
+            criticalPath.add(0, key);
+        }
+    }
+}
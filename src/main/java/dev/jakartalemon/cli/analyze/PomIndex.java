@@ -0,0 +1,423 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On-disk index of the pom.xml files of a tree, stored in {@value #INDEX_FILE} under its root, so
+ * repeated scans only parse the files that changed. An entry is valid while the size and the
+ * modification time of its file are the ones recorded.
+ * <p>
+ * The index is read through a memory-mapped file. Opening it only decodes the paths of the
+ * entries; the rest of an entry is decoded when it is looked up. All the strings are stored once,
+ * in a table at the start of the file, and entries refer to them by position:
+ * <pre>
+ * int magic, int format version
+ * varint string count, (varint length, UTF-8 bytes) per string
+ * varint entry count, per entry:
+ *   varint entry length, varint path, varlong size, varlong modification time in nanoseconds,
+ *   varint groupId, artifactId, version, packaging, parent,
+ *   varint module count, modules, varint dependency count, dependencies,
+ *   varint property count, (key, value) per property
+ * </pre>
+ * String references are the position in the table plus one; zero stands for {@code null}.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class PomIndex {
+
+    /**
+     * Location of the index, relative to the root of the tree.
+     */
+    public static final String INDEX_FILE = ".jakartalemon/index";
+
+    private static final Logger LOGGER = Logger.getLogger(PomIndex.class.getName());
+    private static final int MAGIC = 0x4A4C4958;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path root;
+    private final Path indexPath;
+    private final ByteBuffer mapped;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final Map<String, Integer> entryOffsets;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private PomIndex(Path root, ByteBuffer mapped, int[] stringOffsets, int[] stringLengths,
+        Map<String, Integer> entryOffsets) {
+        this.root = root;
+        this.indexPath = root.resolve(INDEX_FILE);
+        this.mapped = mapped;
+        this.stringOffsets = stringOffsets;
+        this.stringLengths = stringLengths;
+        this.strings = new String[stringOffsets.length];
+        this.entryOffsets = entryOffsets;
+    }
+
+    /**
+     * Opens the index of a tree. A missing, outdated or damaged index is treated as empty.
+     *
+     * @param root root of the tree
+     * @return the index
+     */
+    public static PomIndex open(Path root) {
+        var indexPath = root.resolve(INDEX_FILE);
+        if (Files.isRegularFile(indexPath)) {
+            try (var channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return read(root, mapped);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "ignoring the index " + indexPath, e);
+            }
+        }
+        return new PomIndex(root, ByteBuffer.allocate(0), new int[0], new int[0], Map.of());
+    }
+
+    /**
+     * Returns the indexed module of a pom.xml, if its size and modification time did not change.
+     * The entry is kept for the next {@link #save()}. An entry that can not be decoded, because
+     * the index is truncated or damaged, counts as a miss and is dropped, so the file is parsed
+     * again and its entry rewritten.
+     *
+     * @param pomPath    pom.xml path
+     * @param attributes current attributes of the file
+     * @return the module, or {@code null} if it has to be parsed again
+     */
+    public ReactorModule lookup(Path pomPath, BasicFileAttributes attributes) {
+        var key = key(pomPath);
+        var offset = entryOffsets.get(key);
+        if (offset != null) {
+            Entry entry;
+            try {
+                entry = decode(pomPath, offset);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "ignoring the damaged entry of " + pomPath, e);
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.size() == attributes.size() && entry.modifiedNanos() == modifiedNanos(
+                attributes)) {
+                entries.put(key, entry);
+                hits.incrementAndGet();
+                return entry.module();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Records a parsed pom.xml, to be written by the next {@link #save()}.
+     *
+     * @param module     parsed module
+     * @param attributes attributes of the file when it was parsed
+     */
+    public void record(ReactorModule module, BasicFileAttributes attributes) {
+        entries.put(key(module.pomPath()), new Entry(attributes.size(), modifiedNanos(attributes),
+            module));
+    }
+
+    /**
+     * @return lookups answered by the index
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return lookups that required parsing the file
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Writes the entries looked up or recorded since the index was opened, replacing the file
+     * atomically. Entries of files that were not seen, because they were deleted, are dropped.
+     * Nothing is written if every lookup was a hit and no entry was dropped.
+     *
+     * @throws IOException if the index could not be written
+     */
+    public void save() throws IOException {
+        if (misses.get() == 0 && entries.size() == entryOffsets.size()) {
+            return;
+        }
+        Map<String, Integer> table = new LinkedHashMap<>();
+        var body = new Encoder();
+        var sorted = new TreeMap<>(entries);
+        body.writeVarInt(sorted.size());
+        var entry = new Encoder();
+        sorted.forEach((key, value) -> {
+            entry.reset();
+            entry.writeVarInt(ref(table, key));
+            entry.writeVarLong(value.size());
+            entry.writeVarLong(value.modifiedNanos());
+            var module = value.module();
+            entry.writeVarInt(ref(table, module.groupId()));
+            entry.writeVarInt(ref(table, module.artifactId()));
+            entry.writeVarInt(ref(table, module.version()));
+            entry.writeVarInt(ref(table, module.packaging()));
+            entry.writeVarInt(ref(table, module.parent()));
+            writeList(entry, table, module.modules());
+            writeList(entry, table, module.dependencies());
+            entry.writeVarInt(module.properties().size());
+            module.properties().forEach((name, propertyValue) -> {
+                entry.writeVarInt(ref(table, name));
+                entry.writeVarInt(ref(table, propertyValue));
+            });
+            body.writeVarInt(entry.size());
+            body.write(entry);
+        });
+        var header = new Encoder();
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeVarInt(table.size());
+        for (var string : table.keySet()) {
+            var bytes = string.getBytes(StandardCharsets.UTF_8);
+            header.writeVarInt(bytes.length);
+            header.write(bytes, bytes.length);
+        }
+        Files.createDirectories(indexPath.getParent());
+        var temporary = Files.createTempFile(indexPath.getParent(), "index", ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            var buffers = new ByteBuffer[]{header.buffer(), body.buffer()};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static PomIndex read(Path root, ByteBuffer mapped) {
+        var decoder = new Decoder(mapped, 0);
+        if (decoder.readInt() != MAGIC || decoder.readInt() != FORMAT_VERSION) {
+            throw new IllegalStateException("unknown index format");
+        }
+        var stringCount = decoder.readVarInt();
+        var stringOffsets = new int[stringCount];
+        var stringLengths = new int[stringCount];
+        for (var i = 0; i < stringCount; i++) {
+            stringLengths[i] = decoder.readVarInt();
+            stringOffsets[i] = decoder.position;
+            decoder.position += stringLengths[i];
+        }
+        var entryCount = decoder.readVarInt();
+        Map<String, Integer> entryOffsets = new HashMap<>(entryCount * 2);
+        var index = new PomIndex(root, mapped, stringOffsets, stringLengths, entryOffsets);
+        for (var i = 0; i < entryCount; i++) {
+            var length = decoder.readVarInt();
+            var offset = decoder.position;
+            entryOffsets.put(index.string(new Decoder(mapped, offset).readVarInt()), offset);
+            decoder.position = offset + length;
+        }
+        return index;
+    }
+
+    private Entry decode(Path pomPath, int offset) {
+        var decoder = new Decoder(mapped, offset);
+        decoder.readVarInt();
+        var size = decoder.readVarLong();
+        var modifiedNanos = decoder.readVarLong();
+        var groupId = string(decoder.readVarInt());
+        var artifactId = string(decoder.readVarInt());
+        var version = string(decoder.readVarInt());
+        var packaging = string(decoder.readVarInt());
+        var parent = string(decoder.readVarInt());
+        var modules = readList(decoder);
+        var dependencies = readList(decoder);
+        var propertyCount = decoder.readVarInt();
+        Map<String, String> properties = new TreeMap<>();
+        for (var i = 0; i < propertyCount; i++) {
+            properties.put(string(decoder.readVarInt()), string(decoder.readVarInt()));
+        }
+        return new Entry(size, modifiedNanos, new ReactorModule(pomPath, groupId, artifactId,
+            version, packaging, parent, modules, dependencies, Collections.unmodifiableMap(
+            properties)));
+    }
+
+    private List<String> readList(Decoder decoder) {
+        var count = decoder.readVarInt();
+        List<String> values = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            values.add(string(decoder.readVarInt()));
+        }
+        return List.copyOf(values);
+    }
+
+    /**
+     * Decodes a string of the table the first time it is used. Several threads may decode the
+     * same string at once, which only wastes the work of one of them.
+     */
+    private String string(int ref) {
+        if (ref == 0) {
+            return null;
+        }
+        var string = strings[ref - 1];
+        if (string == null) {
+            var bytes = new byte[stringLengths[ref - 1]];
+            mapped.get(stringOffsets[ref - 1], bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[ref - 1] = string;
+        }
+        return string;
+    }
+
+    private static void writeList(Encoder encoder, Map<String, Integer> table,
+        List<String> values) {
+        encoder.writeVarInt(values.size());
+        values.forEach(value -> encoder.writeVarInt(ref(table, value)));
+    }
+
+    private static int ref(Map<String, Integer> table, String value) {
+        return value == null ? 0 : table.computeIfAbsent(value, key -> table.size() + 1);
+    }
+
+    private String key(Path pomPath) {
+        return root.relativize(pomPath).toString().replace(pomPath.getFileSystem()
+            .getSeparator(), "/");
+    }
+
+    private static long modifiedNanos(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private record Entry(long size, long modifiedNanos, ReactorModule module) {
+
+    }
+
+    /**
+     * Growable buffer with the encodings of the index.
+     */
+    private static class Encoder {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        private void writeInt(int value) {
+            ensure(4);
+            for (var shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void write(byte[] source, int length) {
+            ensure(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+
+        private void write(Encoder source) {
+            write(source.bytes, source.size);
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        private ByteBuffer buffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+
+    /**
+     * Reads the encodings of the index with absolute reads, so several threads can decode the
+     * same mapped buffer.
+     */
+    private static class Decoder {
+
+        private final ByteBuffer buffer;
+        private int position;
+
+        private Decoder(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private int readInt() {
+            var value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private int readVarInt() {
+            return Math.toIntExact(readVarLong());
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (var shift = 0; shift < 64; shift += 7) {
+                var b = buffer.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("malformed varint at " + position);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maven module found while scanning a tree.
+ *
+ * @param pomPath      pom.xml of the module
+ * @param groupId      group id, inherited from the parent if the module does not declare it
+ * @param artifactId   artifact id
+ * @param version      version, inherited from the parent if the module does not declare it
+ * @param packaging    packaging, {@code jar} if not declared
+ * @param parent       {@code groupId:artifactId} of the parent, {@code null} if there is none
+ * @param modules      declared modules
+ * @param dependencies {@code groupId:artifactId} of the declared dependencies
+ * @param properties   declared properties
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public record ReactorModule(Path pomPath,
+    String groupId,
+    String artifactId,
+    String version,
+    String packaging,
+    String parent,
+    List<String> modules,
+    List<String> dependencies,
+    Map<String, String> properties) {
+
+    /**
+     * Coordinates that identify the module in the reactor.
+     *
+     * @return {@code groupId:artifactId}
+     */
+    public String key() {
+        return groupId + ':' + artifactId;
+    }
+}
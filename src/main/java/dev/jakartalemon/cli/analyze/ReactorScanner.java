@@ -0,0 +1,254 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.analyze;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.xpath.XPathExpressionException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds and parses every pom.xml of a tree with a fork/join pool. Each folder is a task that forks
+ * one task per subfolder and parses its own pom.xml while they run. The {@code src} and
+ * {@code target} folders of a module, hidden folders and symbolic links are not visited.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class ReactorScanner {
+
+    private static final String POM_XML = "pom.xml";
+    private static final Set<String> SKIPPED_FOLDERS = Set.of("target", "node_modules");
+    private static final Set<String> SKIPPED_MODULE_FOLDERS = Set.of("src");
+    private static final String MODULE_ELEMENTS = "/project/groupId | /project/artifactId"
+        + " | /project/version | /project/packaging | /project/parent | /project/modules/module"
+        + " | /project/dependencies/dependency | /project/properties/*";
+    private static final Set<String> GROUP_ID_EXPRESSIONS = Set.of("${project.groupId}",
+        "${project.parent.groupId}", "${pom.groupId}", "${groupId}");
+
+    private ReactorScanner() {
+    }
+
+    /**
+     * Scans a tree, parsing every pom.xml.
+     *
+     * @param root folder to scan
+     * @param pool pool that runs the scan
+     * @return modules found, sorted by path, and the pom.xml files that could not be read
+     */
+    public static ScanResult scan(Path root, ForkJoinPool pool) {
+        return scan(root, pool, null);
+    }
+
+    /**
+     * Scans a tree, parsing only the pom.xml files that changed since they were indexed. The
+     * parsed files are recorded in the index, which the caller saves.
+     *
+     * @param root  folder to scan
+     * @param pool  pool that runs the scan
+     * @param index index of the tree, {@code null} to parse every file
+     * @return modules found, sorted by path, and the pom.xml files that could not be read
+     */
+    public static ScanResult scan(Path root, ForkJoinPool pool, PomIndex index) {
+        var modules = new ConcurrentLinkedQueue<ReactorModule>();
+        var failures = new ConcurrentLinkedQueue<String>();
+        pool.invoke(new FolderTask(root, index, modules, failures));
+        var sortedModules = modules.stream()
+            .sorted(Comparator.comparing(ReactorModule::pomPath))
+            .toList();
+        return new ScanResult(sortedModules, failures.stream().sorted().toList());
+    }
+
+    /**
+     * Parses a pom.xml. The elements needed are selected with a single XPath union, because each
+     * evaluation over a DOM document costs about as much as walking the whole document.
+     *
+     * @param pomPath pom.xml path
+     * @return the module, or {@code null} if the file is not a valid pom.xml
+     * @throws XPathExpressionException never, the expression is constant
+     */
+    static ReactorModule parse(Path pomPath) throws XPathExpressionException {
+        var document = DocumentXmlUtil.openDocument(pomPath);
+        if (document.isEmpty()) {
+            return null;
+        }
+        Map<String, Element> elements = new HashMap<>();
+        List<Element> dependencyElements = new ArrayList<>();
+        List<String> modules = new ArrayList<>();
+        Map<String, String> properties = new TreeMap<>();
+        DocumentXmlUtil.streamElementsByFilter(document.get(), MODULE_ELEMENTS).forEach(
+            element -> {
+                var parentName = element.getParentNode().getNodeName();
+                if (parentName.equals("properties")) {
+                    properties.put(element.getNodeName(), element.getTextContent().trim());
+                } else if (parentName.equals("modules")) {
+                    modules.add(element.getTextContent().trim());
+                } else if (parentName.equals("dependencies")) {
+                    dependencyElements.add(element);
+                } else {
+                    elements.putIfAbsent(element.getNodeName(), element);
+                }
+            });
+        var parent = elements.get("parent");
+        var parentGroupId = parent == null ? null : childText(parent, "groupId");
+        var groupId = orElse(text(elements.get("groupId")), parentGroupId);
+        var artifactId = text(elements.get("artifactId"));
+        if (artifactId == null || groupId == null) {
+            return null;
+        }
+        List<String> dependencies = new ArrayList<>(dependencyElements.size());
+        for (var dependency : dependencyElements) {
+            var dependencyGroupId = childText(dependency, "groupId");
+            var dependencyArtifactId = childText(dependency, "artifactId");
+            if (dependencyGroupId != null && dependencyArtifactId != null) {
+                dependencies.add((GROUP_ID_EXPRESSIONS.contains(dependencyGroupId) ? groupId
+                    : dependencyGroupId) + ':' + dependencyArtifactId);
+            }
+        }
+        var version = orElse(text(elements.get("version")), parent == null ? null : childText(
+            parent, "version"));
+        return new ReactorModule(pomPath,
+            groupId,
+            artifactId,
+            version,
+            orElse(text(elements.get("packaging")), "jar"),
+            parent == null ? null : parentGroupId + ':' + childText(parent, "artifactId"),
+            List.copyOf(modules),
+            List.copyOf(dependencies),
+            Collections.unmodifiableMap(properties));
+    }
+
+    private static String orElse(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static String text(Element element) {
+        return element == null ? null : element.getTextContent().trim();
+    }
+
+    /**
+     * Text of a direct child. {@link Element#getElementsByTagName(String)} is not used because it
+     * also finds the {@code groupId} of the exclusions of a dependency.
+     */
+    private static String childText(Element element, String name) {
+        for (var child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && child.getNodeName().equals(name)) {
+                return child.getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Result of a scan.
+     *
+     * @param modules  modules found, sorted by path
+     * @param failures pom.xml files that could not be read
+     */
+    public record ScanResult(List<ReactorModule> modules, List<String> failures) {
+
+    }
+
+    private static class FolderTask extends RecursiveAction {
+
+        private final Path folder;
+        private final PomIndex index;
+        private final Queue<ReactorModule> modules;
+        private final Queue<String> failures;
+
+        private FolderTask(Path folder, PomIndex index, Queue<ReactorModule> modules,
+            Queue<String> failures) {
+            this.folder = folder;
+            this.index = index;
+            this.modules = modules;
+            this.failures = failures;
+        }
+
+        @Override
+        protected void compute() {
+            Path pomPath = null;
+            List<Path> subfolders = new ArrayList<>();
+            try (var entries = Files.newDirectoryStream(folder)) {
+                for (var entry : entries) {
+                    var name = entry.getFileName().toString();
+                    if (name.equals(POM_XML)) {
+                        pomPath = entry;
+                    } else if (!name.startsWith(".") && !SKIPPED_FOLDERS.contains(name)
+                        && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        subfolders.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                failures.add("%s: %s".formatted(folder, e.getMessage()));
+                return;
+            }
+            if (pomPath != null) {
+                subfolders.removeIf(subfolder -> SKIPPED_MODULE_FOLDERS.contains(subfolder
+                    .getFileName().toString()));
+            }
+            List<FolderTask> tasks = new ArrayList<>(subfolders.size());
+            for (var subfolder : subfolders) {
+                var task = new FolderTask(subfolder, index, modules, failures);
+                task.fork();
+                tasks.add(task);
+            }
+            if (pomPath != null) {
+                parseInto(pomPath);
+            }
+            for (var index = tasks.size() - 1; index >= 0; index--) {
+                tasks.get(index).join();
+            }
+        }
+
+        private void parseInto(Path pomPath) {
+            try {
+                var attributes = index == null ? null : Files.readAttributes(pomPath,
+                    BasicFileAttributes.class);
+                var module = attributes == null ? null : index.lookup(pomPath, attributes);
+                if (module == null) {
+                    module = parse(pomPath);
+                    if (module != null && attributes != null) {
+                        index.record(module, attributes);
+                    }
+                }
+                if (module == null) {
+                    failures.add("%s: not a valid pom.xml".formatted(pomPath));
+                } else {
+                    modules.add(module);
+                }
+            } catch (IOException | XPathExpressionException | RuntimeException e) {
+                failures.add("%s: %s".formatted(pomPath, e.getMessage()));
+            }
+        }
+    }
+}
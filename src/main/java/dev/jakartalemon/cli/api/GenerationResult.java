@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.api;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of the generation of a project. A module that could not be created is reported in
+ * {@code errors}, and so are the modules below it, which are skipped.
+ *
+ * @param projectPath    project root folder
+ * @param poms           pom.xml files written, in the order they were completed
+ * @param errors         modules that could not be created
+ * @param directoryCalls calls made to the project output to create the folders of the modules,
+ *                       so the folder budget of a scaffold can be checked
+ * @param elapsed        generation time
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public record GenerationResult(Path projectPath,
+    List<Path> poms,
+    List<ModuleError> errors,
+    int directoryCalls,
+    Duration elapsed) {
+
+    /**
+     * Whether every module was created.
+     *
+     * @return {@code true} if there are no errors
+     */
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * A module that could not be created.
+     *
+     * @param module  module name
+     * @param message cause of the failure
+     */
+    public record ModuleError(String module, String message) {
+
+        @Override
+        public String toString() {
+            return "%s: %s".formatted(module, message);
+        }
+    }
+}
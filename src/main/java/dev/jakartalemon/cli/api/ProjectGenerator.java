@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.api;
+
+import static dev.jakartalemon.cli.util.Constants.DIRECTORY_CALLS;
+import static dev.jakartalemon.cli.util.Constants.ERRORS;
+import static dev.jakartalemon.cli.util.Constants.MESSAGE;
+import static dev.jakartalemon.cli.util.Constants.MODULE;
+import static dev.jakartalemon.cli.util.Constants.MODULES;
+
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.project.GenerationPlan;
+import dev.jakartalemon.cli.project.SkeletonCache;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Entry point to generate projects from another application, without starting a process per
+ * project. The generator holds no state of its own: every call works on its own options and
+ * output, the compiled blueprints are shared, and any number of threads can generate projects at
+ * the same time.
+ *
+ * <pre>{@code
+ * var result = ProjectGenerator.getInstance().generate(options);
+ * if (!result.isSuccessful()) {
+ *     result.errors().forEach(System.err::println);
+ * }
+ * }</pre>
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class ProjectGenerator {
+
+    private ProjectGenerator() {
+    }
+
+    public static ProjectGenerator getInstance() {
+        return ProjectGeneratorHolder.INSTANCE;
+    }
+
+    /**
+     * Generates a project into the filesystem, overwriting the files that already exist.
+     *
+     * @param options project to generate
+     * @return created pom.xml files and module errors
+     * @throws IllegalArgumentException if the options are incomplete, or the archetype has no
+     *                                  blueprint
+     * @throws IOException              if the project folder could not be created
+     */
+    public GenerationResult generate(ProjectOptions options) throws IOException {
+        return generate(options, ProjectOutput.fileSystem(false));
+    }
+
+    /**
+     * Generates a project into an output, such as the filesystem, an archive or a staging folder.
+     * The output is not closed, so one output can receive several projects.
+     *
+     * @param options project to generate
+     * @param output  where the project is written. It must be thread-safe if it is shared with
+     *                other threads
+     * @return created pom.xml files and module errors
+     * @throws IllegalArgumentException if the options are incomplete, or the archetype has no
+     *                                  blueprint
+     * @throws IOException              if the project folder could not be created, or the
+     *                                  skeleton cache could not be used
+     */
+    public GenerationResult generate(ProjectOptions options, ProjectOutput output)
+        throws IOException {
+        Objects.requireNonNull(output, "output");
+        var projectPath = require(options.getProjectPath(), "projectPath");
+        var archetype = require(options.getArchetype(), "archetype");
+        var groupId = requireText(options.getGroupId(), "groupId");
+        var artifactId = requireText(options.getArtifactId(), "artifactId");
+        var packageName = StringUtils.isBlank(options.getPackageName()) ? groupId + '.'
+            + artifactId : options.getPackageName();
+        var plan = GenerationPlan.forArchetype(archetype).orElseThrow(
+            () -> new IllegalArgumentException("%s has no blueprint yet".formatted(archetype)));
+        var start = System.nanoTime();
+        output.createDirectories(projectPath);
+        var projectInfo = options.isUseCache()
+            ? SkeletonCache.getInstance().createProject(archetype, projectPath, groupId,
+                artifactId, packageName, output)
+            : plan.generate(projectPath, groupId, artifactId, packageName, output);
+        return toResult(projectPath, projectInfo, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static GenerationResult toResult(Path projectPath, JsonObject projectInfo,
+        Duration elapsed) {
+        var poms = projectInfo.getJsonArray(MODULES).getValuesAs(JsonString.class).stream()
+            .map(pom -> Path.of(pom.getString()))
+            .toList();
+        var errors = projectInfo.getJsonArray(ERRORS).getValuesAs(JsonObject.class).stream()
+            .map(error -> new GenerationResult.ModuleError(error.getString(MODULE), error
+                .getString(MESSAGE)))
+            .toList();
+        return new GenerationResult(projectPath, poms, errors, projectInfo.getInt(
+            DIRECTORY_CALLS, 0), elapsed);
+    }
+
+    private static <T> T require(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("%s is required".formatted(name));
+        }
+        return value;
+    }
+
+    private static String requireText(String value, String name) {
+        if (StringUtils.isBlank(value)) {
+            throw new IllegalArgumentException("%s is required".formatted(name));
+        }
+        return value;
+    }
+
+    private static class ProjectGeneratorHolder {
+
+        private static final ProjectGenerator INSTANCE = new ProjectGenerator();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.api;
+
+import dev.jakartalemon.cli.project.constants.Archetype;
+import java.nio.file.Path;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * What to generate: the folder, archetype and coordinates of one project. Instances are immutable
+ * and can be shared between threads.
+ *
+ * <pre>{@code
+ * var options = ProjectOptions.builder()
+ *     .projectPath(Path.of("shop"))
+ *     .groupId("com.example")
+ *     .artifactId("shop")
+ *     .build();
+ * }</pre>
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Getter
+@Builder
+public class ProjectOptions {
+
+    /**
+     * Project root folder.
+     */
+    private final Path projectPath;
+
+    /**
+     * Project archetype, {@link Archetype#HEXA} by default. It must have a blueprint.
+     */
+    @Builder.Default
+    private final Archetype archetype = Archetype.HEXA;
+
+    /**
+     * Project group id.
+     */
+    private final String groupId;
+
+    /**
+     * Project artifact id.
+     */
+    private final String artifactId;
+
+    /**
+     * Base package of the modules, {@code groupId.artifactId} if blank.
+     */
+    private final String packageName;
+
+    /**
+     * Whether the project is copied from the skeleton cache in {@code ~/.jakartalemon/cache}.
+     */
+    private final boolean useCache;
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.daemon;
+
+import dev.jakartalemon.cli.JakartaLemonCli;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Thin client of the daemon: sends the command line to the daemon and copies its output. When no
+ * daemon is listening, the command runs in this process instead.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    public static void main(String... args) {
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(DaemonProtocol.
+                defaultSocketPath()));
+        } catch (IOException | UnsupportedOperationException e) {
+            JakartaLemonCli.main(args);
+            return;
+        }
+        try (channel) {
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(
+                channel)));
+            DaemonProtocol.writeRequest(out, Path.of("").toAbsolutePath(), args);
+            channel.shutdownOutput();
+            System.exit(readResponse(new DataInputStream(new BufferedInputStream(Channels.
+                newInputStream(channel)))));
+        } catch (IOException e) {
+            System.err.println("Connection with the daemon lost: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int readResponse(DataInputStream in) throws IOException {
+        while (true) {
+            var type = in.readByte();
+            var payload = new byte[in.readInt()];
+            in.readFully(payload);
+            switch (type) {
+                case DaemonProtocol.STDOUT -> {
+                    System.out.write(payload);
+                    System.out.flush();
+                }
+                case DaemonProtocol.STDERR -> {
+                    System.err.write(payload);
+                    System.err.flush();
+                }
+                case DaemonProtocol.EXIT -> {
+                    return ByteBuffer.wrap(payload).getInt();
+                }
+                default ->
+                    throw new EOFException("unknown frame type " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.daemon;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import picocli.CommandLine;
+
+/**
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@CommandLine.Command(
+    name = "daemon",
+    resourceBundle = "messages",
+    description = "Keep a warm process serving command lines sent through a Unix domain socket."
+)
+public class DaemonCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(DaemonCommand.class.getName());
+
+    @CommandLine.Option(
+        names = {"-s", "--socket"},
+        descriptionKey = "daemon.socket"
+    )
+    private Path socketPath;
+
+    @CommandLine.Option(
+        names = {"--idle-timeout"},
+        defaultValue = "600",
+        descriptionKey = "daemon.idleTimeout"
+    )
+    private long idleTimeoutSeconds;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        var socket = socketPath == null ? DaemonProtocol.defaultSocketPath() : socketPath;
+        try {
+            spec.commandLine().getOut().printf("Listening on %s%n", socket);
+            spec.commandLine().getOut().flush();
+            new DaemonServer(socket, Duration.ofSeconds(idleTimeoutSeconds)).serve();
+            return 0;
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Wire format between the daemon and its clients. The client sends its working directory and its
+ * arguments as length-prefixed UTF-8 strings. The daemon answers with frames made of a type byte
+ * and a length-prefixed payload: standard output, standard error and, last, the exit code. The
+ * counts and lengths of a request are checked before anything is allocated, so a broken or hostile
+ * client can not exhaust the memory of the daemon.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class DaemonProtocol {
+
+    public static final byte STDOUT = 1;
+    public static final byte STDERR = 2;
+    public static final byte EXIT = 3;
+
+    private static final String SOCKET_ENV = "JAKARTALEMON_SOCKET";
+    private static final int MAX_ARGUMENTS = 1024;
+    private static final int MAX_STRING_BYTES = 64 * 1024;
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * Socket of the daemon: the {@code JAKARTALEMON_SOCKET} environment variable, or
+     * {@code ~/.jakartalemon/daemon.sock}.
+     *
+     * @return socket path
+     */
+    public static Path defaultSocketPath() {
+        return Optional.ofNullable(System.getenv(SOCKET_ENV))
+            .map(Path::of)
+            .orElseGet(() -> Path.of(System.getProperty("user.home"), ".jakartalemon",
+            "daemon.sock"));
+    }
+
+    static void writeRequest(DataOutputStream out, Path workingDirectory, String... args) throws
+        IOException {
+        out.writeInt(args.length);
+        writeString(out, workingDirectory.toString());
+        for (var arg : args) {
+            writeString(out, arg);
+        }
+        out.flush();
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        var count = readLength(in, MAX_ARGUMENTS, "argument count");
+        var workingDirectory = Path.of(readString(in));
+        var args = new String[count];
+        for (var i = 0; i < count; i++) {
+            args[i] = readString(in);
+        }
+        return new Request(workingDirectory, args);
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        writeFrame(out, type, payload, 0, payload.length);
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] payload, int offset,
+        int length) throws IOException {
+        out.writeByte(type);
+        out.writeInt(length);
+        out.write(payload, offset, length);
+    }
+
+    static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+        out.writeByte(EXIT);
+        out.writeInt(Integer.BYTES);
+        out.writeInt(exitCode);
+        out.flush();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var bytes = new byte[readLength(in, MAX_STRING_BYTES, "argument length")];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream in, int max, String name) throws IOException {
+        var length = in.readInt();
+        if (length < 0 || length > max) {
+            throw new IOException("invalid %s %d, expected 0 to %d".formatted(name, length, max));
+        }
+        return length;
+    }
+
+    record Request(Path workingDirectory, String[] args) {
+
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.daemon;
+
+import dev.jakartalemon.cli.JakartaLemonCli;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Long-lived process that runs command lines sent by clients through a Unix domain socket. Each
+ * client is served on its own thread, with its output streamed back as it is written. The server
+ * stops once no client has been connected for the idle timeout.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public class DaemonServer {
+
+    private static final Logger LOGGER = Logger.getLogger(DaemonServer.class.getName());
+    private static final long MAX_SELECT_MILLIS = 1000;
+
+    private final Path socketPath;
+    private final Duration idleTimeout;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger activeClients = new AtomicInteger();
+    private volatile long lastActivity = System.nanoTime();
+
+    /**
+     * @param socketPath  socket file to listen on
+     * @param idleTimeout time without clients after which the server stops
+     */
+    public DaemonServer(Path socketPath, Duration idleTimeout) {
+        this.socketPath = socketPath;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Listens for clients until the idle timeout expires.
+     *
+     * @throws IOException if the socket could not be opened, for example because another daemon
+     *                     is already listening on it
+     */
+    public void serve() throws IOException {
+        removeStaleSocket();
+        try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            var selector = Selector.open()) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            var selectMillis = Math.max(1, Math.min(MAX_SELECT_MILLIS, idleTimeout.toMillis()));
+            while (!isIdle()) {
+                selector.select(selectMillis);
+                selector.selectedKeys().clear();
+                SocketChannel client;
+                while ((client = server.accept()) != null) {
+                    client.configureBlocking(true);
+                    activeClients.incrementAndGet();
+                    var acceptedClient = client;
+                    executor.execute(() -> serve(acceptedClient));
+                }
+            }
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private boolean isIdle() {
+        return activeClients.get() == 0
+            && System.nanoTime() - lastActivity > idleTimeout.toNanos();
+    }
+
+    private void serve(SocketChannel client) {
+        try (client; var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(
+            client))); var out = new DataOutputStream(new BufferedOutputStream(Channels.
+                newOutputStream(client)))) {
+            var request = DaemonProtocol.readRequest(in);
+            var stdout = new PrintWriter(new FrameWriter(out, DaemonProtocol.STDOUT), true);
+            var stderr = new PrintWriter(new FrameWriter(out, DaemonProtocol.STDERR), true);
+            int exitCode;
+            if (JakartaLemonCli.subcommandOf(request.args()).filter("daemon"::equals)
+                .isPresent()) {
+                stderr.println("The daemon can not start another daemon");
+                exitCode = 2;
+            } else {
+                var commandLine = JakartaLemonCli.newCommandLine(request.args());
+                var cli = (JakartaLemonCli) commandLine.getCommand();
+                cli.setWorkingDirectory(request.workingDirectory());
+                cli.setStandardOutput(new FrameOutputStream(out, DaemonProtocol.STDOUT));
+                exitCode = commandLine.setOut(stdout).setErr(stderr).execute(request.args());
+            }
+            stdout.flush();
+            stderr.flush();
+            synchronized (out) {
+                DaemonProtocol.writeExit(out, exitCode);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "client disconnected", e);
+        } finally {
+            lastActivity = System.nanoTime();
+            activeClients.decrementAndGet();
+        }
+    }
+
+    /**
+     * Deletes a socket file left by a daemon that did not stop cleanly. Fails if a daemon is still
+     * listening on it.
+     */
+    private void removeStaleSocket() throws IOException {
+        Files.createDirectories(socketPath.toAbsolutePath().getParent());
+        if (isListening()) {
+            throw new IOException("a daemon is already listening on %s".formatted(socketPath));
+        }
+        Files.deleteIfExists(socketPath);
+    }
+
+    private boolean isListening() {
+        if (!Files.exists(socketPath)) {
+            return false;
+        }
+        try (var ignored = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sends everything written to it as frames of the given type.
+     */
+    /**
+     * Sends binary output, such as an archive written to the standard output, as frames of a
+     * type. Closing it only flushes, the connection stays open for the exit code.
+     */
+    private static class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (out) {
+                DaemonProtocol.writeFrame(out, type, b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private static class FrameWriter extends Writer {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameWriter(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            var payload = new String(cbuf, off, len).getBytes(StandardCharsets.UTF_8);
+            synchronized (out) {
+                DaemonProtocol.writeFrame(out, type, payload);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
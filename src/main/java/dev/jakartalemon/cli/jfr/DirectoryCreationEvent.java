@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Creation of the folders of a directory plan.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Name("dev.jakartalemon.DirectoryCreation")
+@Label("Directory Creation")
+@Category({"Jakarta Lemon", "Generation"})
+@Description("Creation of the folders of a project or a module")
+public final class DirectoryCreationEvent extends Event {
+
+    @Label("Path")
+    @Description("Base folder of the plan")
+    public String path;
+
+    @Label("Directories")
+    public int directories;
+
+    @Label("Output Calls")
+    @Description("Calls to the project output, one per folder plus one for the base folder")
+    public int calls;
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Generation of one module of a project: its pom.xml. The folders of all the modules are created
+ * before, see {@link DirectoryCreationEvent}.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Name("dev.jakartalemon.ModuleGeneration")
+@Label("Module Generation")
+@Category({"Jakarta Lemon", "Generation"})
+@Description("Creation of the pom.xml of a module")
+public final class ModuleGenerationEvent extends Event {
+
+    @Label("Module")
+    public String module;
+
+    @Label("Path")
+    @Description("pom.xml of the module")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
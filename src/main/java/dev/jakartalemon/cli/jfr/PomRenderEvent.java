@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Rendering of a pom.xml from its model: the DOM build and the XSLT transform.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Name("dev.jakartalemon.PomRender")
+@Label("POM Render")
+@Category({"Jakarta Lemon", "XML"})
+@Description("Rendering of a pom.xml from its model")
+public final class PomRenderEvent extends Event {
+
+    @Label("Module")
+    @Description("Artifact id of the module")
+    public String module;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Declarative description of an archetype, read from {@code /blueprints/<archetype>.json}. The
+ * root module takes the groupId and artifactId of the project, and every other module takes its
+ * name as artifactId and the module above it as parent.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Setter
+@Getter
+public class Blueprint {
+
+    private String version = "1.0-SNAPSHOT";
+    private ModuleBlueprint root;
+
+}
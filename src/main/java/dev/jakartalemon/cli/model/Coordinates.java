@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maven coordinates. The group id and the version repeat across every module of a reactor, so they
+ * are interned: all the coordinates built through {@link #of(String, String, String)} share the
+ * same instances. The table of shared values is bounded, so a long-lived process such as the daemon
+ * or the watch loop does not grow it forever: past {@value #MAX_SHARED} values, new values are
+ * returned as they are.
+ *
+ * @param groupId    group id
+ * @param artifactId artifact id
+ * @param version    version, {@code null} if not declared
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public record Coordinates(String groupId, String artifactId, String version) {
+
+    private static final int MAX_SHARED = 4096;
+    private static final Map<String, String> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Creates coordinates with interned group id and version.
+     *
+     * @param groupId    group id
+     * @param artifactId artifact id
+     * @param version    version, {@code null} if not declared
+     * @return coordinates
+     */
+    public static Coordinates of(String groupId, String artifactId, String version) {
+        return new Coordinates(intern(groupId), artifactId, intern(version));
+    }
+
+    /**
+     * Returns the shared instance of a value that repeats across modules, such as a group id, a
+     * version or a scope.
+     *
+     * @param value value to share
+     * @return the shared instance, the value itself if the table is full, or {@code null} if the
+     *         value is {@code null}
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        var shared = SHARED.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (SHARED.size() >= MAX_SHARED) {
+            return value;
+        }
+        shared = SHARED.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+}
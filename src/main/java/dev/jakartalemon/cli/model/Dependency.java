@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
+
+import java.util.Map;
+
+/**
+ * Dependency of a pom.xml. Its elements are written in this order, any of them but the
+ * coordinates may be {@code null}.
+ *
+ * @param coordinates dependency coordinates
+ * @param type        dependency type
+ * @param classifier  artifact classifier
+ * @param scope       dependency scope
+ * @param systemPath  path of a {@code system} dependency
+ * @param optional    {@code true} if the dependency is optional
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public record Dependency(Coordinates coordinates,
+    String type,
+    String classifier,
+    String scope,
+    String systemPath,
+    String optional) {
+
+    /**
+     * Creates a dependency with only coordinates.
+     *
+     * @param groupId    group id
+     * @param artifactId artifact id
+     * @param version    version
+     * @return dependency
+     */
+    public static Dependency of(String groupId, String artifactId, String version) {
+        return new Dependency(Coordinates.of(groupId, artifactId, version), null, null, null,
+            null, null);
+    }
+
+    /**
+     * Converts a dependency given as a map of element names to values.
+     *
+     * @param dependency dependency elements
+     * @return dependency
+     * @throws IllegalArgumentException if the map has an element that is not a dependency element
+     */
+    public static Dependency of(Map<String, String> dependency) {
+        for (var key : dependency.keySet()) {
+            switch (key) {
+                case GROUP_ID, ARTIFACT_ID, VERSION, "type", "classifier", "scope", "systemPath",
+                    "optional" -> {
+                }
+                default -> throw new IllegalArgumentException("unsupported dependency element "
+                    + key);
+            }
+        }
+        return new Dependency(Coordinates.of(dependency.get(GROUP_ID), dependency.get(
+            ARTIFACT_ID), dependency.get(VERSION)),
+            Coordinates.intern(dependency.get("type")),
+            dependency.get("classifier"),
+            Coordinates.intern(dependency.get("scope")),
+            dependency.get("systemPath"),
+            Coordinates.intern(dependency.get("optional")));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Typed pom.xml, rendered without intermediate maps or element builders. Group ids, versions and
+ * scopes are shared through {@link Coordinates#intern(String)}, so a reactor of many modules holds
+ * a single copy of each.
+ *
+ * @param modelVersion       model version
+ * @param parent             parent coordinates, {@code null} if there is no parent
+ * @param parentRelativePath relative path of the parent, {@code null} if not declared
+ * @param groupId            group id, {@code null} if inherited
+ * @param artifactId         artifact id
+ * @param version            version, {@code null} if inherited
+ * @param packaging          packaging
+ * @param modules            modules, {@code null} if there are none
+ * @param dependencies       dependencies, {@code null} if there are none
+ * @param properties         properties sorted by name, {@code null} if there are none
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public record MavenPom(String modelVersion,
+    Coordinates parent,
+    String parentRelativePath,
+    String groupId,
+    String artifactId,
+    String version,
+    String packaging,
+    List<String> modules,
+    List<Dependency> dependencies,
+    SortedMap<String, String> properties) {
+
+    private static final String RELATIVE_PATH = "relativePath";
+
+    /**
+     * Converts a {@link PomModel}.
+     *
+     * @param pomModel pom.xml model
+     * @return typed pom.xml
+     * @throws IllegalArgumentException if the parent or a dependency has an element that is not
+     *                                  valid there
+     */
+    public static MavenPom from(PomModel pomModel) {
+        var parent = pomModel.getParent();
+        if (parent != null) {
+            parent.keySet().stream()
+                .filter(key -> !key.equals(GROUP_ID) && !key.equals(ARTIFACT_ID)
+                && !key.equals(VERSION) && !key.equals(RELATIVE_PATH))
+                .findFirst()
+                .ifPresent(key -> {
+                    throw new IllegalArgumentException("unsupported parent element " + key);
+                });
+        }
+        return new MavenPom(pomModel.getModelVersion(),
+            parent == null ? null : Coordinates.of(parent.get(GROUP_ID), parent.get(ARTIFACT_ID),
+                parent.get(VERSION)),
+            parent == null ? null : parent.get(RELATIVE_PATH),
+            Coordinates.intern(pomModel.getGroupId()),
+            pomModel.getArtifactId(),
+            Coordinates.intern(pomModel.getVersion()),
+            Coordinates.intern(pomModel.getPackaging()),
+            Optional.ofNullable(pomModel.getModules()).map(List::copyOf).orElse(null),
+            Optional.ofNullable(pomModel.getDependencies())
+                .map(dependencies -> dependencies.stream().map(Dependency::of).toList())
+                .orElse(null),
+            sorted(pomModel.getProperties()));
+    }
+
+    /**
+     * Copies properties in name order.
+     *
+     * @param properties properties, may be {@code null}
+     * @return sorted unmodifiable properties, or {@code null}
+     */
+    public static SortedMap<String, String> sorted(Map<String, String> properties) {
+        return properties == null ? null : Collections.unmodifiableSortedMap(new TreeMap<>(
+            properties));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One module of a {@link Blueprint}.
+ * <p>
+ * The {@code packages} are relative to the base package of the project, an empty string being the
+ * base package itself. A module without packages gets no source folders, as a pom module.
+ * <p>
+ * The {@code parent} is the artifactId of the parent pom.xml, the enclosing module by default.
+ * {@value #ROOT_PARENT} stands for the root module of the project.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Setter
+@Getter
+public class ModuleBlueprint {
+
+    /**
+     * Value of {@code parent} that stands for the root module of the project.
+     */
+    public static final String ROOT_PARENT = "@root";
+
+    private String name;
+    private String parent;
+    private String packaging;
+    private List<Map<String, String>> dependencies;
+    private Map<String, String> properties;
+    private List<String> packages;
+    private List<ModuleBlueprint> modules;
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.model;
+
+import jakarta.json.bind.annotation.JsonbProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One project of a batch manifest, a JSON array of
+ * {@code {"name", "groupId", "artifactId", "package", "arch"}} objects.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Setter
+@Getter
+public class ProjectManifestEntry {
+
+    private String name;
+    private String groupId;
+    private String artifactId;
+    @JsonbProperty("package")
+    private String packageName;
+    private String arch = "MVC";
+
+}
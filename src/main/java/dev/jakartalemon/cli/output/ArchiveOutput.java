@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import dev.jakartalemon.cli.util.Profiler;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streams the generated files into an archive as they are produced, without writing them to the
+ * filesystem. Entry names are relative to a base directory, usually the parent of the project,
+ * so a project {@code demo} is archived under {@code demo/}. Paths outside the base directory are
+ * rejected, so an archive never holds entries that climb out of the folder it is extracted to.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public abstract class ArchiveOutput implements ProjectOutput {
+
+    /**
+     * Name that sends the archive to the standard output.
+     */
+    public static final String STDOUT = "-";
+
+    /**
+     * Supported archive formats.
+     */
+    public static final List<String> FORMATS = List.of("zip", "tar");
+
+    private final Path baseDirectory;
+    private final Set<String> directories = new HashSet<>();
+    protected final long modifiedMillis = System.currentTimeMillis();
+
+    protected ArchiveOutput(Path baseDirectory) {
+        this.baseDirectory = baseDirectory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Opens an archive output.
+     *
+     * @param archive          archive file, or {@value #STDOUT} for the standard output
+     * @param format           {@code zip} or {@code tar}; if {@code null}, taken from the archive
+     *                         extension, {@code zip} by default
+     * @param workingDirectory directory the archive path is relative to
+     * @param baseDirectory    directory the entry names are relative to
+     * @param standardOutput   stream that receives the archive when it is {@value #STDOUT}
+     * @return archive output
+     * @throws IOException if the archive file could not be created
+     */
+    public static ArchiveOutput open(String archive, String format, Path workingDirectory,
+        Path baseDirectory, OutputStream standardOutput) throws IOException {
+        var archiveFormat = format != null ? format.toLowerCase(Locale.ROOT)
+            : archive.toLowerCase(Locale.ROOT).endsWith(".tar") ? "tar" : "zip";
+        if (!FORMATS.contains(archiveFormat)) {
+            throw new IllegalArgumentException("unknown archive format " + format);
+        }
+        OutputStream outputStream = STDOUT.equals(archive)
+            ? standardOutput
+            : Files.newOutputStream(workingDirectory.resolve(archive));
+        var bufferedStream = new BufferedOutputStream(outputStream);
+        return archiveFormat.equals("zip")
+            ? new ZipArchiveOutput(baseDirectory, bufferedStream)
+            : new TarArchiveOutput(baseDirectory, bufferedStream);
+    }
+
+    @Override
+    public synchronized void createDirectories(Path directory) throws IOException {
+        var name = entryName(directory);
+        if (name.isEmpty() || directories.contains(name)) {
+            return;
+        }
+        var parent = directory.toAbsolutePath().normalize().getParent();
+        if (parent != null && parent.startsWith(baseDirectory)) {
+            createDirectories(parent);
+        }
+        directories.add(name);
+        putDirectory(name + '/');
+    }
+
+    @Override
+    public synchronized boolean write(Path file, byte[] content) throws IOException {
+        try (var phase = Profiler.phase("file.write")) {
+            putFile(entryName(file), content);
+            return true;
+        }
+    }
+
+    /**
+     * Writes a directory entry.
+     *
+     * @param name entry name, ending with {@code /}
+     * @throws IOException if the entry could not be written
+     */
+    protected abstract void putDirectory(String name) throws IOException;
+
+    /**
+     * Writes a file entry.
+     *
+     * @param name    entry name
+     * @param content file content
+     * @throws IOException if the entry could not be written
+     */
+    protected abstract void putFile(String name, byte[] content) throws IOException;
+
+    private String entryName(Path path) throws IOException {
+        var normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(baseDirectory)) {
+            throw new IOException("%s is outside of the archive base %s".formatted(path,
+                baseDirectory));
+        }
+        var relative = baseDirectory.relativize(normalized);
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import dev.jakartalemon.cli.jfr.DirectoryCreationEvent;
+import dev.jakartalemon.cli.util.Profiler;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Directories needed by a scaffold, merged into a prefix tree under a base directory before any of
+ * them is created. Every directory of the tree is then created exactly once, parents before
+ * children, so shared prefixes such as {@code src/main} are not walked again for every source
+ * folder and package. Not thread-safe, a plan is meant to be filled and created by one task.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public class DirectoryPlan {
+
+    private final Path baseDirectory;
+    private final Node root = new Node();
+    private int size;
+    private int outputCalls;
+
+    /**
+     * Creates an empty plan.
+     *
+     * @param baseDirectory directory all the planned directories are relative to
+     */
+    public DirectoryPlan(Path baseDirectory) {
+        this.baseDirectory = baseDirectory;
+    }
+
+    /**
+     * Adds a directory, and its parents up to the base directory.
+     *
+     * @param directory directory relative to the base directory, with {@code /} as separator
+     * @return this plan
+     */
+    public DirectoryPlan add(String directory) {
+        var node = root;
+        for (var segment : directory.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.child(segment);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a directory, and its parents up to the base directory.
+     *
+     * @param directory directory inside the base directory
+     * @return this plan
+     * @throws IllegalArgumentException if the directory is not inside the base directory
+     */
+    public DirectoryPlan add(Path directory) {
+        if (!directory.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("%s is not inside %s".formatted(directory,
+                baseDirectory));
+        }
+        var node = root;
+        for (var segment : baseDirectory.relativize(directory)) {
+            if (!segment.toString().isEmpty()) {
+                node = node.child(segment.toString());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Creates the base directory with its missing parents, and then every planned directory with
+     * one call each.
+     *
+     * @param output where the directories are created
+     * @return number of {@link ProjectOutput} calls made by this invocation
+     * @throws IOException if a directory could not be created
+     */
+    public int create(ProjectOutput output) throws IOException {
+        var event = new DirectoryCreationEvent();
+        event.begin();
+        try (var phase = Profiler.phase("directories")) {
+            var calls = 1;
+            output.createDirectories(baseDirectory);
+            calls += create(output, baseDirectory, root);
+            outputCalls += calls;
+            if (event.shouldCommit()) {
+                event.path = baseDirectory.toString();
+                event.directories = size;
+                event.calls = calls;
+                event.commit();
+            }
+            return calls;
+        }
+    }
+
+    /**
+     * Number of distinct directories in the plan, not counting the base directory.
+     *
+     * @return planned directories
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@link ProjectOutput} calls made so far by {@link #create(ProjectOutput)}, so the budget of a
+     * scaffold can be checked: one call for the base directory plus one per planned directory.
+     * These are calls to the output, not system calls: creating the base directory may take
+     * several.
+     *
+     * @return output calls
+     */
+    public int getOutputCalls() {
+        return outputCalls;
+    }
+
+    private static int create(ProjectOutput output, Path parent, Node node) throws IOException {
+        var calls = 0;
+        for (var child : node.children.entrySet()) {
+            var directory = parent.resolve(child.getKey());
+            output.createDirectory(directory);
+            calls += 1 + create(output, directory, child.getValue());
+        }
+        return calls;
+    }
+
+    private final class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        private Node child(String segment) {
+            return children.computeIfAbsent(segment, key -> {
+                size++;
+                return new Node();
+            });
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import dev.jakartalemon.cli.util.Profiler;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes the generated files to the filesystem.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+class FileSystemOutput implements ProjectOutput {
+
+    static final FileSystemOutput OVERWRITE = new FileSystemOutput(false);
+    static final FileSystemOutput INCREMENTAL = new FileSystemOutput(true);
+
+    private final boolean incremental;
+
+    private FileSystemOutput(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    @Override
+    public void createDirectories(Path directory) throws IOException {
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public void createDirectory(Path directory) throws IOException {
+        try {
+            Files.createDirectory(directory);
+        } catch (FileAlreadyExistsException e) {
+            if (!Files.isDirectory(directory)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Writes the file. In incremental mode, the file is not written if it already has exactly
+     * that content, so its modification time does not change.
+     */
+    @Override
+    public boolean write(Path file, byte[] content) throws IOException {
+        try (var phase = Profiler.phase("file.write")) {
+            if (incremental && Files.isRegularFile(file) && Files.size(file) == content.length
+                && Arrays.equals(Files.readAllBytes(file), content)) {
+                return false;
+            }
+            Files.write(file, content);
+            return true;
+        }
+    }
+}
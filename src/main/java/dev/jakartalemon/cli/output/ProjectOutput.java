@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Target where generated projects are written: the real filesystem, or an archive stream. Paths
+ * are always given as if the project were written to the filesystem. Implementations are
+ * thread-safe, since the modules of a project are generated in parallel.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public interface ProjectOutput extends Closeable {
+
+    /**
+     * Creates a directory, and its missing parents.
+     *
+     * @param directory directory path
+     * @throws IOException if the directory could not be created
+     */
+    void createDirectories(Path directory) throws IOException;
+
+    /**
+     * Creates a single directory whose parent already exists. Nothing is done if the directory
+     * already exists.
+     *
+     * @param directory directory path
+     * @throws IOException if the directory could not be created
+     */
+    default void createDirectory(Path directory) throws IOException {
+        createDirectories(directory);
+    }
+
+    /**
+     * Writes a file. Its parent directory has already been created.
+     *
+     * @param file    file path
+     * @param content file content
+     * @return {@code true} if the file was written, {@code false} if it was skipped
+     * @throws IOException if the file could not be written
+     */
+    boolean write(Path file, byte[] content) throws IOException;
+
+    /**
+     * Finishes the output. Nothing can be written afterwards.
+     *
+     * @throws IOException if the output could not be finished
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Output that writes to the filesystem.
+     *
+     * @param incremental if {@code true}, files that already have the same content are not
+     *                    rewritten
+     * @return filesystem output
+     */
+    static ProjectOutput fileSystem(boolean incremental) {
+        return incremental ? FileSystemOutput.INCREMENTAL : FileSystemOutput.OVERWRITE;
+    }
+}
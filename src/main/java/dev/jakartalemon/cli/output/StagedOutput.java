@@ -0,0 +1,244 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writes a project into a hidden staging folder next to its destination, and makes it visible
+ * with a single atomic rename when {@link #commit()} is called. Until then, and if the process is
+ * interrupted, nothing appears under the destination name: a project is either complete or absent.
+ * Closing the output without committing removes the staging folder.
+ * <p>
+ * The destination must not exist, or be an empty folder, because a folder with content can not be
+ * replaced atomically.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public class StagedOutput implements ProjectOutput {
+
+    /**
+     * When the staged files are flushed to the storage device.
+     */
+    public enum Sync {
+        /**
+         * Never. The rename is atomic, but the content may be lost if the system crashes.
+         */
+        NONE,
+        /**
+         * Each file as soon as it is written.
+         */
+        PER_FILE,
+        /**
+         * All the files together on commit. The flushes are issued concurrently, so the
+         * filesystem can group them in few journal commits.
+         */
+        GROUP
+    }
+
+    private final Path target;
+    private final Path staging;
+    private final Sync sync;
+    private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+    private final Thread cleanup;
+    private volatile boolean committed;
+
+    private StagedOutput(Path target, Path staging, Sync sync) {
+        this.target = target;
+        this.staging = staging;
+        this.sync = sync;
+        this.cleanup = new Thread(this::deleteStaging, "staged-output-cleanup");
+        directories.add(staging);
+    }
+
+    /**
+     * Opens a staged output.
+     *
+     * @param target destination folder of the project
+     * @param sync   when the files are flushed to the storage device
+     * @return staged output
+     * @throws IOException if the destination already has content, or the staging folder could not
+     *                     be created
+     */
+    public static StagedOutput open(Path target, Sync sync) throws IOException {
+        var absoluteTarget = target.toAbsolutePath().normalize();
+        if (hasContent(absoluteTarget)) {
+            throw new FileAlreadyExistsException(absoluteTarget.toString(), null,
+                "a staged project needs a new folder");
+        }
+        var parent = absoluteTarget.getParent();
+        Files.createDirectories(parent);
+        var staging = Files.createTempDirectory(parent, "." + absoluteTarget.getFileName()
+            + ".staging-");
+        var output = new StagedOutput(absoluteTarget, staging, sync);
+        Runtime.getRuntime().addShutdownHook(output.cleanup);
+        return output;
+    }
+
+    @Override
+    public void createDirectories(Path directory) throws IOException {
+        var staged = staged(directory);
+        Files.createDirectories(staged);
+        for (var each = staged; !directories.contains(each); each = each.getParent()) {
+            directories.add(each);
+        }
+    }
+
+    @Override
+    public void createDirectory(Path directory) throws IOException {
+        var staged = staged(directory);
+        try {
+            Files.createDirectory(staged);
+        } catch (FileAlreadyExistsException e) {
+            if (!Files.isDirectory(staged)) {
+                throw e;
+            }
+        }
+        directories.add(staged);
+    }
+
+    @Override
+    public boolean write(Path file, byte[] content) throws IOException {
+        var staged = staged(file);
+        if (sync == Sync.PER_FILE) {
+            try (var channel = FileChannel.open(staged, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(content));
+                channel.force(true);
+            }
+        } else {
+            Files.write(staged, content);
+        }
+        files.add(staged);
+        return true;
+    }
+
+    /**
+     * Flushes the staged files according to the sync mode, and renames the staging folder to the
+     * destination.
+     *
+     * @throws IOException if the files could not be flushed or the folder could not be renamed;
+     *                     the destination is not created then
+     */
+    public synchronized void commit() throws IOException {
+        if (committed) {
+            return;
+        }
+        if (sync == Sync.GROUP) {
+            try {
+                files.parallelStream().forEach(file -> {
+                    try {
+                        force(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        if (sync != Sync.NONE) {
+            for (var directory : directories) {
+                force(directory);
+            }
+        }
+        Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        if (sync != Sync.NONE) {
+            force(target.getParent());
+        }
+    }
+
+    /**
+     * Removes the staging folder if the project was not committed.
+     *
+     * @throws IOException if the staging folder could not be removed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            Runtime.getRuntime().removeShutdownHook(cleanup);
+        } catch (IllegalStateException e) {
+            // the JVM is shutting down, the hook removes the staging folder
+            return;
+        }
+        if (!committed) {
+            deleteRecursively(staging);
+        }
+    }
+
+    private Path staged(Path path) {
+        var absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(target)) {
+            throw new IllegalArgumentException("%s is not inside %s".formatted(path, target));
+        }
+        return staging.resolve(target.relativize(absolute));
+    }
+
+    private void deleteStaging() {
+        if (!committed) {
+            try {
+                deleteRecursively(staging);
+            } catch (IOException e) {
+                // nothing else can be done while the JVM stops
+            }
+        }
+    }
+
+    private static void force(Path path) throws IOException {
+        var option = Files.isDirectory(path) ? StandardOpenOption.READ : StandardOpenOption.WRITE;
+        try (var channel = FileChannel.open(path, option)) {
+            channel.force(true);
+        }
+    }
+
+    private static boolean hasContent(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        if (!Files.isDirectory(path)) {
+            return true;
+        }
+        try (var entries = Files.list(path)) {
+            return entries.findAny().isPresent();
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var paths = Files.walk(path)) {
+            for (var each : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(each);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Streams the generated files into an uncompressed tar archive, in the POSIX ustar format.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+class TarArchiveOutput extends ArchiveOutput {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int PREFIX_LENGTH = 155;
+    private static final byte FILE_TYPE = '0';
+    private static final byte DIRECTORY_TYPE = '5';
+
+    private final OutputStream outputStream;
+
+    TarArchiveOutput(Path baseDirectory, OutputStream outputStream) {
+        super(baseDirectory);
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    protected void putDirectory(String name) throws IOException {
+        outputStream.write(header(name, DIRECTORY_TYPE, 0755, 0));
+    }
+
+    @Override
+    protected void putFile(String name, byte[] content) throws IOException {
+        outputStream.write(header(name, FILE_TYPE, 0644, content.length));
+        outputStream.write(content);
+        var padding = (BLOCK_SIZE - content.length % BLOCK_SIZE) % BLOCK_SIZE;
+        outputStream.write(new byte[padding]);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        outputStream.write(new byte[BLOCK_SIZE * 2]);
+        outputStream.close();
+    }
+
+    private byte[] header(String name, byte type, int mode, long size) {
+        var header = new byte[BLOCK_SIZE];
+        var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        var prefixLength = 0;
+        if (nameBytes.length > NAME_LENGTH) {
+            prefixLength = splitPosition(nameBytes);
+        }
+        var nameStart = prefixLength == 0 ? 0 : prefixLength + 1;
+        System.arraycopy(nameBytes, nameStart, header, 0, nameBytes.length - nameStart);
+        octal(header, 100, 8, mode);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, modifiedMillis / 1000);
+        header[156] = type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        System.arraycopy(nameBytes, 0, header, 345, prefixLength);
+        for (var i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        var checksum = 0;
+        for (var b : header) {
+            checksum += b & 0xff;
+        }
+        octal(header, 148, 7, checksum);
+        return header;
+    }
+
+    /**
+     * Finds the {@code /} where a long name is split into the prefix and name fields.
+     */
+    private static int splitPosition(byte[] nameBytes) {
+        for (var i = Math.min(PREFIX_LENGTH, nameBytes.length - 1); i > 0; i--) {
+            if (nameBytes[i] == '/' && nameBytes.length - i - 1 <= NAME_LENGTH) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("path too long for a tar archive: " + new String(
+            nameBytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a NUL-terminated, zero-padded octal number.
+     */
+    private static void octal(byte[] header, int offset, int length, long value) {
+        var digits = Long.toOctalString(value);
+        var padded = "0".repeat(Math.max(0, length - 1 - digits.length())) + digits;
+        System.arraycopy(padded.getBytes(StandardCharsets.US_ASCII), 0, header, offset,
+            length - 1);
+        header[offset + length - 1] = 0;
+    }
+}
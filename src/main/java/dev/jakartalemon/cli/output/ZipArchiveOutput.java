@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the generated files into a zip archive.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+class ZipArchiveOutput extends ArchiveOutput {
+
+    private final ZipOutputStream zipOutputStream;
+
+    ZipArchiveOutput(Path baseDirectory, OutputStream outputStream) {
+        super(baseDirectory);
+        this.zipOutputStream = new ZipOutputStream(outputStream);
+    }
+
+    @Override
+    protected void putDirectory(String name) throws IOException {
+        zipOutputStream.putNextEntry(newEntry(name));
+        zipOutputStream.closeEntry();
+    }
+
+    @Override
+    protected void putFile(String name, byte[] content) throws IOException {
+        zipOutputStream.putNextEntry(newEntry(name));
+        zipOutputStream.write(content);
+        zipOutputStream.closeEntry();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipOutputStream.close();
+    }
+
+    private ZipEntry newEntry(String name) {
+        var entry = new ZipEntry(name);
+        entry.setTime(modifiedMillis);
+        return entry;
+    }
+}
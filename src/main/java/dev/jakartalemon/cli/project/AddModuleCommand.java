@@ -0,0 +1,220 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.JakartaLemonCli;
+import dev.jakartalemon.cli.model.PomModel;
+import dev.jakartalemon.cli.util.PomPatcher;
+import dev.jakartalemon.cli.util.PomUtil;
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.POM;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import picocli.CommandLine;
+
+/**
+ * Adds a module to an existing project. The module gets its pom.xml and source folders, and it is
+ * registered in the parent pom.xml with a streaming {@link PomPatcher} pass. No other file of the
+ * reactor is read or written, so the cost does not grow with the number of modules.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@CommandLine.Command(
+    name = "addmodule",
+    resourceBundle = "messages",
+    description = "Add a module to an existing Maven project."
+)
+public class AddModuleCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(AddModuleCommand.class.getName());
+    private static final String POM_XML = "pom.xml";
+
+    @CommandLine.Parameters(
+        index = "0",
+        descriptionKey = "module.name"
+    )
+    private String moduleName;
+
+    @CommandLine.Option(
+        names = {"--parent"},
+        descriptionKey = "module.parent"
+    )
+    private Path parentDirectory = Path.of("");
+
+    @CommandLine.Option(
+        names = {"--packaging"},
+        defaultValue = "jar",
+        descriptionKey = "module.packaging"
+    )
+    private String packaging;
+
+    @CommandLine.Option(
+        names = {"-p", "--package"},
+        descriptionKey = "module.package"
+    )
+    private String packageName;
+
+    @CommandLine.Option(
+        names = {"-d", "--dependency"},
+        descriptionKey = "module.dependency"
+    )
+    private List<String> dependencies = new ArrayList<>();
+
+    @CommandLine.ParentCommand
+    private JakartaLemonCli jakartaLemonCli;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (moduleName.isBlank() || moduleName.contains("/") || moduleName.contains("\\")) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Invalid module name: '%s'".formatted(moduleName));
+        }
+        var dependencyModels = new ArrayList<Map<String, String>>();
+        for (var dependency : dependencies) {
+            dependencyModels.add(parseDependency(dependency));
+        }
+        var start = System.nanoTime();
+        try {
+            var pomPath = addModule(jakartaLemonCli.getWorkingDirectory().resolve(
+                parentDirectory), moduleName, packaging, packageName, dependencyModels);
+            spec.commandLine().getOut().printf("%s added in %d ms%n", pomPath, (System.nanoTime()
+                - start) / 1_000_000);
+            return 0;
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
+            return 1;
+        }
+    }
+
+    /**
+     * Creates a module below a parent pom.xml and lists it in the {@code modules} of the parent.
+     * The parent is patched last, so it never lists a module that could not be created.
+     *
+     * @param parentDirectory folder of the parent pom.xml
+     * @param moduleName      module name, also its folder and artifactId
+     * @param packaging       module packaging. A {@code pom} module gets no source folders
+     * @param packageName     package created in the module, by default the groupId of the
+     *                        parent followed by the module name
+     * @param dependencies    dependencies of the module
+     * @return the pom.xml of the new module
+     * @throws IOException if the parent pom.xml is not a {@code pom} project, the module already
+     *                     exists, or a file could not be written
+     */
+    static Path addModule(Path parentDirectory,
+        String moduleName,
+        String packaging,
+        String packageName,
+        List<Map<String, String>> dependencies) throws IOException {
+        var parentPom = parentDirectory.resolve(POM_XML);
+        if (!Files.isRegularFile(parentPom)) {
+            throw new IOException("%s not found".formatted(parentPom));
+        }
+        var modulePath = parentDirectory.resolve(moduleName);
+        if (Files.exists(modulePath.resolve(POM_XML))) {
+            throw new IOException("%s already exists".formatted(modulePath.resolve(POM_XML)));
+        }
+        var parent = PomUtil.getInstance().readCoordinates(parentPom);
+        if (!POM.equals(parent.getPackaging())) {
+            throw new IOException("the packaging of %s is %s, a module can only be added to a pom"
+                .formatted(parentPom, Objects.requireNonNullElse(parent.getPackaging(), "jar")));
+        }
+        var inherited = Objects.requireNonNullElse(parent.getParent(), Map.<String, String>of());
+        var parentCoordinates = new LinkedHashMap<String, String>();
+        parentCoordinates.put(GROUP_ID, parent.getGroupId() != null ? parent.getGroupId()
+            : inherited.get(GROUP_ID));
+        parentCoordinates.put(ARTIFACT_ID, parent.getArtifactId());
+        parentCoordinates.put(VERSION, parent.getVersion() != null ? parent.getVersion()
+            : inherited.get(VERSION));
+        if (parentCoordinates.containsValue(null)) {
+            throw new IOException("the coordinates of %s are incomplete: %s".formatted(parentPom,
+                parentCoordinates));
+        }
+        var pomModel = PomModel.builder()
+            .parent(parentCoordinates)
+            .artifactId(moduleName)
+            .packaging(packaging)
+            .dependencies(dependencies.isEmpty() ? null : dependencies)
+            .build();
+        var pomPath = PomUtil.getInstance().createPom(modulePath, pomModel)
+            .orElseThrow(() -> new IOException("%s could not be created".formatted(modulePath)));
+        if (!POM.equals(packaging)) {
+            var modulePackage = StringUtils.isBlank(packageName)
+                ? Stream.concat(Stream.of(parentCoordinates.get(GROUP_ID).split("\\.")),
+                    Stream.of(moduleName))
+                    .map(AddModuleCommand::toPackageName)
+                    .collect(Collectors.joining("."))
+                : packageName;
+            PomUtil.getInstance().createJavaProjectStructure(modulePath, modulePackage)
+                .orElseThrow(() -> new IOException("the folders of %s could not be created"
+                .formatted(modulePath)));
+        }
+        PomPatcher.newInstance().addModule(moduleName).patch(parentPom);
+        return pomPath;
+    }
+
+    /**
+     * Parses a dependency given as {@code groupId:artifactId:version[:scope]}.
+     */
+    private Map<String, String> parseDependency(String dependency) {
+        var parts = dependency.split(":");
+        if (parts.length < 3 || parts.length > 4 || List.of(parts).contains("")) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Invalid dependency: '%s', expected groupId:artifactId:version[:scope]".formatted(
+                    dependency));
+        }
+        var model = new LinkedHashMap<String, String>();
+        model.put(GROUP_ID, parts[0]);
+        model.put(ARTIFACT_ID, parts[1]);
+        model.put(VERSION, parts[2]);
+        if (parts.length == 4) {
+            model.put("scope", parts[3]);
+        }
+        return model;
+    }
+
+    /**
+     * Turns a name such as {@code order-service} into a package segment such as
+     * {@code orderservice}.
+     */
+    private static String toPackageName(String name) {
+        var packageName = new StringBuilder();
+        name.codePoints()
+            .filter(Character::isJavaIdentifierPart)
+            .map(Character::toLowerCase)
+            .forEach(packageName::appendCodePoint);
+        if (packageName.isEmpty() || !Character.isJavaIdentifierStart(packageName.codePointAt(0))) {
+            packageName.insert(0, '_');
+        }
+        return packageName.toString();
+    }
+}
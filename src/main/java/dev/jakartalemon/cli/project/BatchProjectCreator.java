@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.model.ProjectManifestEntry;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import jakarta.json.bind.JsonbBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates every project of a JSON manifest in the same JVM, with a bounded number of projects
+ * being generated at the same time.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public class BatchProjectCreator {
+
+    private static final Type ENTRIES_TYPE = new ArrayList<ProjectManifestEntry>() {
+    }.getClass().getGenericSuperclass();
+
+    private final Path baseDirectory;
+    private final int parallelism;
+    private final ProjectOutput output;
+    private final boolean useCache;
+    private final PrintWriter out;
+
+    /**
+     * @param baseDirectory directory against which the project names are resolved
+     * @param parallelism   maximum number of projects generated at the same time
+     * @param output        where the projects are written
+     * @param useCache      if {@code true}, the projects are copied from the skeleton cache
+     * @param out           where the summary is printed
+     */
+    public BatchProjectCreator(Path baseDirectory, int parallelism, ProjectOutput output,
+        boolean useCache, PrintWriter out) {
+        this.baseDirectory = baseDirectory;
+        this.output = output;
+        this.useCache = useCache;
+        this.parallelism = Math.max(1, parallelism);
+        this.out = out;
+    }
+
+    /**
+     * Reads the manifest, a JSON array of projects.
+     *
+     * @param manifestPath manifest path
+     * @return projects of the manifest
+     * @throws IOException if the manifest can not be read or is not valid
+     */
+    public static List<ProjectManifestEntry> readManifest(Path manifestPath) throws IOException {
+        try (var jsonb = JsonbBuilder.create(); var reader = Files.newBufferedReader(manifestPath)) {
+            List<ProjectManifestEntry> entries = jsonb.fromJson(reader, ENTRIES_TYPE);
+            return entries == null ? List.of() : entries;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("invalid manifest %s: %s".formatted(manifestPath, e.getMessage()),
+                e);
+        }
+    }
+
+    /**
+     * Creates all the projects and prints a summary with the throughput and the failures of each
+     * project.
+     *
+     * @param entries projects to create
+     * @return {@code 0} if every project was created, {@code 1} otherwise
+     */
+    public int create(List<ProjectManifestEntry> entries) {
+        var start = System.nanoTime();
+        var executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, entries.
+            size())));
+        Map<ProjectManifestEntry, Future<List<String>>> results = new LinkedHashMap<>();
+        try {
+            entries.forEach(entry -> results.put(entry, executor.submit(() -> CreateProjectCommand.
+                createProject(baseDirectory.resolve(entry.getName()), entry.getArch(),
+                    entry.getGroupId(), entry.getArtifactId(), entry.getPackageName(),
+                    output, useCache))));
+            Map<String, List<String>> failures = new LinkedHashMap<>();
+            for (var result : results.entrySet()) {
+                var errors = errorsOf(result.getValue());
+                if (!errors.isEmpty()) {
+                    failures.put(result.getKey().getName(), errors);
+                }
+            }
+            var elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            out.printf("%d projects in %d ms (%.1f projects/s), %d failed%n", entries.size(),
+                elapsedMillis, entries.size() * 1000.0 / elapsedMillis, failures.size());
+            failures.forEach((project, errors) -> {
+                out.printf("  %s%n", project);
+                errors.forEach(error -> out.printf("    %s%n", error));
+            });
+            out.flush();
+            return failures.isEmpty() ? 0 : 1;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> errorsOf(Future<List<String>> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            return List.of(Objects.toString(cause.getMessage(), cause.getClass().getName()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of("interrupted");
+        }
+    }
+}
@@ -16,13 +16,24 @@
 package dev.jakartalemon.cli.project;
 
 import dev.jakartalemon.cli.JakartaLemonCli;
+import dev.jakartalemon.cli.api.GenerationResult;
+import dev.jakartalemon.cli.api.ProjectGenerator;
+import dev.jakartalemon.cli.api.ProjectOptions;
+import dev.jakartalemon.cli.output.ArchiveOutput;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.output.StagedOutput;
 import dev.jakartalemon.cli.project.constants.Archetype;
+import static dev.jakartalemon.cli.util.Constants.ERRORS;
+import static dev.jakartalemon.cli.util.Constants.MESSAGE;
+import static dev.jakartalemon.cli.util.Constants.MODULE;
+import jakarta.json.JsonObject;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.apache.commons.lang3.StringUtils;
 import picocli.CommandLine;
 
 /**
@@ -34,12 +45,13 @@ import picocli.CommandLine;
     resourceBundle = "messages",
     description = "Create Jakarta EE projects using some pattern indicated in the parameters."
 )
-public class CreateProjectCommand implements Runnable {
+public class CreateProjectCommand implements Callable<Integer> {
 
     private static final Logger LOGGER = Logger.getLogger(CreateProjectCommand.class.getName());
 
     @CommandLine.Parameters(
         index = "0",
+        arity = "0..1",
         descriptionKey = "project.name"
     )
     private String projectName;
@@ -75,37 +87,159 @@ public class CreateProjectCommand implements Runnable {
     )
     private String artifactId;
 
+    @CommandLine.Option(
+        names = {"--incremental"},
+        descriptionKey = "project.incremental"
+    )
+    private boolean incremental;
+
+    @CommandLine.Option(
+        names = {"--cache"},
+        descriptionKey = "project.cache"
+    )
+    private boolean useCache;
+
+    @CommandLine.Option(
+        names = {"--atomic"},
+        descriptionKey = "project.atomic"
+    )
+    private boolean atomic;
+
+    @CommandLine.Option(
+        names = {"-o", "--output-archive"},
+        descriptionKey = "project.outputArchive"
+    )
+    private String outputArchive;
+
+    @CommandLine.Option(
+        names = {"--archive-format"},
+        descriptionKey = "project.archiveFormat"
+    )
+    private String archiveFormat;
+
+    @CommandLine.Option(
+        names = {"-m", "--manifest"},
+        descriptionKey = "project.manifest"
+    )
+    private Path manifestPath;
+
+    @CommandLine.Option(
+        names = {"--parallel"},
+        descriptionKey = "project.parallel"
+    )
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     @CommandLine.ParentCommand
     private JakartaLemonCli jakartaLemonCli;
 
-    @Override
-    public void run() {
-        try {
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
 
-            var projectPath = Path.of(projectName);
-            var created = Files.createDirectories(projectPath);
-            if (verbose) {
-                LOGGER.info(String.format("%s created", created));
+    @Override
+    public Integer call() {
+        if (manifestPath == null && projectName == null) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Missing required parameter: '<projectName>'");
+        }
+        if (archiveFormat != null && !ArchiveOutput.FORMATS.contains(archiveFormat.toLowerCase(
+            Locale.ROOT))) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Invalid value for option '--archive-format': %s, expected one of %s".formatted(
+                    archiveFormat, ArchiveOutput.FORMATS));
+        }
+        if (atomic && (manifestPath != null || outputArchive != null || incremental)) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "--atomic creates a single new project folder, it can not be combined with "
+                + "--manifest, --output-archive or --incremental");
+        }
+        var workingDirectory = jakartaLemonCli.getWorkingDirectory();
+        try (var output = openOutput(workingDirectory)) {
+            if (manifestPath != null) {
+                var entries = BatchProjectCreator.readManifest(workingDirectory.resolve(
+                    manifestPath));
+                return new BatchProjectCreator(workingDirectory, parallelism, output, useCache,
+                    spec.commandLine().getOut()).create(entries);
             }
-            var archetype = Archetype.valueOf(archetypeOption.toUpperCase());
-            if (StringUtils.isBlank(packageName)) {
-                packageName = groupId + '.' + artifactId;
+            var projectPath = workingDirectory.resolve(projectName);
+            var errors = createProject(projectPath, archetypeOption, groupId, artifactId,
+                packageName, output, useCache);
+            if (verbose) {
+                LOGGER.info(String.format("%s created", projectPath));
             }
-            switch (archetype) {
-                case HEXA -> {
-                    var projectInfo = CreateHexagonalProject.getInstance()
-                        .createProject(created, groupId, artifactId, packageName);
-                }
-                case JSF -> {
-                }
-                case MVC -> {
-                }
-                case REST -> {
-                }
+            errors.forEach(spec.commandLine().getErr()::println);
+            if (errors.isEmpty() && output instanceof StagedOutput stagedOutput) {
+                stagedOutput.commit();
             }
+            return errors.isEmpty() ? 0 : 1;
         } catch (IOException ex) {
             LOGGER.log(Level.SEVERE, null, ex);
+            return 1;
+        } catch (IllegalArgumentException ex) {
+            throw new CommandLine.ParameterException(spec.commandLine(), ex.getMessage());
         }
     }
 
+    private ProjectOutput openOutput(Path workingDirectory) throws IOException {
+        if (atomic) {
+            return StagedOutput.open(workingDirectory.resolve(projectName), StagedOutput.Sync.GROUP);
+        }
+        return outputArchive == null
+            ? ProjectOutput.fileSystem(incremental)
+            : ArchiveOutput.open(outputArchive, archiveFormat, workingDirectory, manifestPath
+                != null ? workingDirectory : archiveBase(workingDirectory.resolve(projectName)),
+                jakartaLemonCli.getStandardOutput());
+    }
+
+    private static Path archiveBase(Path projectPath) {
+        var normalized = projectPath.toAbsolutePath().normalize();
+        return normalized.getParent() != null ? normalized.getParent() : normalized;
+    }
+
+    /**
+     * Creates a project with the given archetype.
+     *
+     * @param projectPath     project root path
+     * @param archetypeOption archetype name, see {@link Archetype}
+     * @param groupId         project group id
+     * @param artifactId      project artifact id
+     * @param packageName     base package, {@code groupId.artifactId} if blank
+     * @param output          where the project is written
+     * @param useCache        if {@code true}, the project is copied from the skeleton cache
+     * @return errors found while creating the project, one per failed module
+     * @throws IOException              if the project folder could not be created
+     * @throws IllegalArgumentException if the archetype is unknown or a coordinate is missing
+     */
+    static List<String> createProject(Path projectPath,
+        String archetypeOption,
+        String groupId,
+        String artifactId,
+        String packageName,
+        ProjectOutput output,
+        boolean useCache) throws IOException {
+        var archetype = Archetype.valueOf(archetypeOption.toUpperCase());
+        if (GenerationPlan.forArchetype(archetype).isEmpty()) {
+            output.createDirectories(projectPath);
+            LOGGER.warning(String.format("%s has no blueprint yet", archetype));
+            return List.of();
+        }
+        var options = ProjectOptions.builder()
+            .projectPath(projectPath)
+            .archetype(archetype)
+            .groupId(groupId)
+            .artifactId(artifactId)
+            .packageName(packageName)
+            .useCache(useCache)
+            .build();
+        return ProjectGenerator.getInstance().generate(options, output).errors().stream()
+            .map(GenerationResult.ModuleError::toString)
+            .toList();
+    }
+
+    static List<String> errorsOf(JsonObject projectInfo) {
+        return projectInfo.getJsonArray(ERRORS).getValuesAs(JsonObject.class).stream()
+            .map(error -> String.format("%s: %s", error.getString(MODULE), error.getString(
+                MESSAGE)))
+            .toList();
+    }
+
 }
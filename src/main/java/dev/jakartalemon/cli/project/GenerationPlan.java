@@ -0,0 +1,442 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.jfr.ModuleGenerationEvent;
+import dev.jakartalemon.cli.model.Blueprint;
+import dev.jakartalemon.cli.model.ModuleBlueprint;
+import dev.jakartalemon.cli.model.Coordinates;
+import dev.jakartalemon.cli.model.Dependency;
+import dev.jakartalemon.cli.model.MavenPom;
+import dev.jakartalemon.cli.output.DirectoryPlan;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.project.constants.Archetype;
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+import dev.jakartalemon.cli.util.PomUtil;
+import dev.jakartalemon.cli.util.Profiler;
+import static dev.jakartalemon.cli.util.Constants.DIRECTORY_CALLS;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable plan to generate the projects of an archetype, compiled once from its blueprint: the
+ * module tree, the pom.xml of every module rendered in advance with placeholders for the project
+ * coordinates, and the flattened list of folders of every module. Generating a project only fills
+ * in the placeholders and writes the result.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Slf4j
+public final class GenerationPlan {
+
+    private static final String BLUEPRINT_RESOURCE = "/blueprints/%s.json";
+    private static final String GROUP_ID_TOKEN = "@plan.groupId@";
+    private static final String ARTIFACT_ID_TOKEN = "@plan.artifactId@";
+    private static final String PACKAGE_TOKEN = "@plan.package@";
+    private static final String POM_XML = "pom.xml";
+    private static final String DEFAULT_MODEL_VERSION = "4.0.0";
+    private static final List<String> SOURCE_FOLDERS = List.of("src/main/java",
+        "src/main/resources", "src/test/java", "src/test/resources");
+    private static final Map<Archetype, Optional<GenerationPlan>> PLANS
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Module generation is dominated by filesystem latency, so the pool is wider than the number
+     * of processors.
+     */
+    private static final ForkJoinPool EXECUTOR = new ForkJoinPool(
+        Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    private final ModulePlan root;
+
+    private GenerationPlan(ModulePlan root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the plan of an archetype, compiled the first time it is requested.
+     *
+     * @param archetype project archetype
+     * @return the plan, or {@link Optional#empty()} if the archetype has no blueprint
+     */
+    public static Optional<GenerationPlan> forArchetype(Archetype archetype) {
+        return PLANS.computeIfAbsent(archetype, GenerationPlan::load);
+    }
+
+    /**
+     * Compiles a blueprint.
+     *
+     * @param blueprint blueprint of an archetype
+     * @return the plan of the blueprint
+     */
+    public static GenerationPlan compile(Blueprint blueprint) {
+        Objects.requireNonNull(blueprint.getRoot(), "the blueprint has no root module");
+        try (var phase = Profiler.phase("plan.compile")) {
+            return new GenerationPlan(compileModule(blueprint, blueprint.getRoot(), null, ""));
+        }
+    }
+
+    /**
+     * Reads and compiles a blueprint file.
+     *
+     * @param blueprintFile JSON blueprint, with the format of the archetype blueprints
+     * @return the plan of the blueprint
+     * @throws IOException              if the file could not be read
+     * @throws IllegalArgumentException if the file is not a valid blueprint
+     */
+    public static GenerationPlan read(Path blueprintFile) throws IOException {
+        try (var is = Files.newInputStream(blueprintFile)) {
+            return parse(is);
+        } catch (JsonbException | IllegalStateException | NullPointerException e) {
+            throw new IllegalArgumentException("invalid blueprint %s: %s".formatted(blueprintFile,
+                e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Generates a project. The folders of every module are created first, from a single
+     * {@link DirectoryPlan} of the whole project. Then sibling modules are generated in parallel,
+     * each one after its parent module.
+     *
+     * @param projectPath project root path
+     * @param groupId     project group id
+     * @param artifactId  project artifact id
+     * @param packageName base package of the modules
+     * @param output      where the project is written
+     * @return JSON object with the created {@code modules}, the {@code errors} per module and the
+     *         {@code directoryCalls} made to the output to create the folders
+     */
+    public JsonObject generate(Path projectPath,
+        String groupId,
+        String artifactId,
+        String packageName,
+        ProjectOutput output) {
+        var target = new Target(projectPath, DocumentXmlUtil.escapeText(groupId), DocumentXmlUtil.
+            escapeText(artifactId), packageName.replace('.', '/'), output);
+        var tasks = new ModuleTaskGraph(EXECUTOR);
+        var directoryCalls = new AtomicInteger();
+        var rootTask = tasks.submit(artifactId, () -> {
+            directoryCalls.set(createDirectories(target));
+            return generateModule(root, target);
+        });
+        schedule(tasks, rootTask, root, target);
+        return Json.createObjectBuilder(tasks.await())
+            .add(DIRECTORY_CALLS, directoryCalls.get())
+            .build();
+    }
+
+    /**
+     * Brings a project generated with a previous plan up to this plan, touching only what differs
+     * between both: new modules are generated, the pom.xml files whose content changed are written
+     * again, and only the folders that were not in the previous plan are created. Modules that are
+     * no longer in the plan are reported but their folders are left untouched.
+     *
+     * @param previous    plan the project was generated with
+     * @param projectPath project root path
+     * @param groupId     project group id
+     * @param artifactId  project artifact id
+     * @param packageName base package of the modules
+     * @param output      where the project is written
+     * @return what was written
+     * @throws IOException if a folder or a pom.xml could not be written
+     */
+    public Update update(GenerationPlan previous,
+        Path projectPath,
+        String groupId,
+        String artifactId,
+        String packageName,
+        ProjectOutput output) throws IOException {
+        var target = new Target(projectPath, DocumentXmlUtil.escapeText(groupId), DocumentXmlUtil.
+            escapeText(artifactId), packageName.replace('.', '/'), output);
+        var before = new HashMap<String, ModulePlan>();
+        previous.root.collect(before);
+        var poms = new ArrayList<Path>();
+        var directories = updateModule(root, before, target, poms);
+        return new Update(List.copyOf(poms), directories, before.keySet().stream().sorted()
+            .toList());
+    }
+
+    /**
+     * Resource of the blueprint of an archetype.
+     *
+     * @param archetype project archetype
+     * @return resource name
+     */
+    static String blueprintResource(Archetype archetype) {
+        return BLUEPRINT_RESOURCE.formatted(archetype.name().toLowerCase(Locale.ROOT));
+    }
+
+    private static void schedule(ModuleTaskGraph tasks, CompletableFuture<Path> parentTask,
+        ModulePlan parent, Target target) {
+        for (var module : parent.modules()) {
+            var task = tasks.after(parentTask, module.name(), parentPom -> generateModule(module,
+                target));
+            schedule(tasks, task, module, target);
+        }
+    }
+
+    /**
+     * Creates the folders of all the modules with one plan rooted at the project, so the folders
+     * that several modules share are created once.
+     *
+     * @return calls made to the output
+     */
+    private int createDirectories(Target target) {
+        var directories = new DirectoryPlan(target.projectPath());
+        addDirectories(directories, root, target);
+        try {
+            return directories.create(target.output());
+        } catch (IOException e) {
+            throw new IllegalStateException("could not create the folders of %s: %s".formatted(
+                target.projectPath(), e.getMessage()), e);
+        }
+    }
+
+    private static void addDirectories(DirectoryPlan directories, ModulePlan module,
+        Target target) {
+        var prefix = module.relativePath().isEmpty() ? "" : module.relativePath() + '/';
+        directories.add(module.relativePath());
+        module.directories().forEach(directory -> directories.add(prefix + directory.replace(
+            PACKAGE_TOKEN, target.packagePath())));
+        module.modules().forEach(child -> addDirectories(directories, child, target));
+    }
+
+    private static Path generateModule(ModulePlan module, Target target) {
+        var pomPath = modulePath(module, target).resolve(POM_XML);
+        var event = new ModuleGenerationEvent();
+        event.begin();
+        try (var phase = Profiler.module(Objects.requireNonNullElse(module.name(), target
+            .artifactId()))) {
+            var bytes = writePom(module, target, pomPath);
+            if (event.shouldCommit()) {
+                event.module = Objects.requireNonNullElse(module.name(), target.artifactId());
+                event.path = pomPath.toString();
+                event.bytes = bytes;
+                event.commit();
+            }
+            return pomPath;
+        } catch (IOException e) {
+            throw new IllegalStateException("could not create %s: %s".formatted(pomPath, e.
+                getMessage()), e);
+        }
+    }
+
+    /**
+     * Updates a module and its child modules, removing each one found from the modules of the
+     * previous plan.
+     *
+     * @return number of folders created
+     */
+    private static int updateModule(ModulePlan module, Map<String, ModulePlan> before,
+        Target target, List<Path> poms) throws IOException {
+        var previous = before.remove(module.relativePath());
+        var modulePath = modulePath(module, target);
+        var directories = new DirectoryPlan(modulePath);
+        module.directories().stream()
+            .filter(directory -> previous == null || !previous.directories().contains(directory))
+            .forEach(directory -> directories.add(directory.replace(PACKAGE_TOKEN, target
+                .packagePath())));
+        if (previous == null || directories.size() > 0) {
+            directories.create(target.output());
+        }
+        if (previous == null || !previous.pomTemplate().equals(module.pomTemplate())) {
+            var pomPath = modulePath.resolve(POM_XML);
+            writePom(module, target, pomPath);
+            poms.add(pomPath);
+        }
+        var created = directories.size();
+        for (var child : module.modules()) {
+            created += updateModule(child, before, target, poms);
+        }
+        return created;
+    }
+
+    private static Path modulePath(ModulePlan module, Target target) {
+        return module.relativePath().isEmpty() ? target.projectPath()
+            : target.projectPath().resolve(module.relativePath());
+    }
+
+    /**
+     * Fills in the placeholders of the pom.xml of a module and writes it.
+     *
+     * @return number of bytes of the pom.xml
+     */
+    private static int writePom(ModulePlan module, Target target, Path pomPath)
+        throws IOException {
+        var content = module.pomTemplate()
+            .replace(GROUP_ID_TOKEN, target.groupId())
+            .replace(ARTIFACT_ID_TOKEN, target.artifactId())
+            .getBytes(StandardCharsets.UTF_8);
+        if (target.output().write(pomPath, content)) {
+            log.info("{} saved", pomPath.toAbsolutePath());
+        } else {
+            log.info("{} unchanged", pomPath.toAbsolutePath());
+        }
+        return content.length;
+    }
+
+    private static GenerationPlan parse(InputStream is) {
+        return compile(JsonbHolder.JSONB.fromJson(is, Blueprint.class));
+    }
+
+    private static Optional<GenerationPlan> load(Archetype archetype) {
+        var resource = blueprintResource(archetype);
+        try (var is = GenerationPlan.class.getResourceAsStream(resource)) {
+            if (is == null) {
+                return Optional.empty();
+            }
+            var plan = parse(is);
+            log.debug("{} compiled", resource);
+            return Optional.of(plan);
+        } catch (Exception e) {
+            throw new IllegalStateException("invalid blueprint %s: %s".formatted(resource, e.
+                getMessage()), e);
+        }
+    }
+
+    private static ModulePlan compileModule(Blueprint blueprint,
+        ModuleBlueprint module,
+        String parentArtifactId,
+        String relativePath) {
+        var isRoot = parentArtifactId == null;
+        var artifactId = isRoot ? ARTIFACT_ID_TOKEN : module.getName();
+        var children = Optional.ofNullable(module.getModules()).orElse(List.of());
+        Coordinates parent = null;
+        if (!isRoot) {
+            parent = Coordinates.of(GROUP_ID_TOKEN, Optional.ofNullable(module.getParent())
+                .map(name -> name.equals(ModuleBlueprint.ROOT_PARENT) ? ARTIFACT_ID_TOKEN : name)
+                .orElse(parentArtifactId), blueprint.getVersion());
+        }
+        var pom = new MavenPom(DEFAULT_MODEL_VERSION,
+            parent,
+            null,
+            isRoot ? GROUP_ID_TOKEN : null,
+            artifactId,
+            isRoot ? blueprint.getVersion() : null,
+            Coordinates.intern(module.getPackaging()),
+            children.isEmpty() ? null : children.stream().map(ModuleBlueprint::getName).toList(),
+            Optional.ofNullable(module.getDependencies())
+                .map(dependencies -> dependencies.stream().map(Dependency::of).toList())
+                .orElse(null),
+            MavenPom.sorted(module.getProperties()));
+        String pomTemplate;
+        try {
+            pomTemplate = new String(PomUtil.getInstance().renderPom(pom), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException("could not render the pom.xml of %s".formatted(
+                artifactId), e);
+        }
+        List<String> directories = new ArrayList<>();
+        Optional.ofNullable(module.getPackages()).ifPresent(packages -> {
+            directories.addAll(SOURCE_FOLDERS);
+            packages.forEach(packageName -> directories.add("src/main/java/" + PACKAGE_TOKEN
+                + (packageName.isEmpty() ? "" : '/' + packageName.replace('.', '/'))));
+        });
+        var modules = children.stream()
+            .map(child -> compileModule(blueprint, child, artifactId, relativePath.isEmpty()
+                ? child.getName() : relativePath + '/' + child.getName()))
+            .toList();
+        return new ModulePlan(isRoot ? null : module.getName(), relativePath, pomTemplate,
+            List.copyOf(directories), modules);
+    }
+
+    /**
+     * Compiled module.
+     *
+     * @param name         module name, {@code null} for the root module
+     * @param relativePath module folder, relative to the project folder
+     * @param pomTemplate  pom.xml with placeholders for the project groupId and artifactId
+     * @param directories  folders of the module, relative to the module folder, with a
+     *                     placeholder for the base package
+     * @param modules      child modules
+     */
+    private record ModulePlan(String name,
+        String relativePath,
+        String pomTemplate,
+        List<String> directories,
+        List<ModulePlan> modules) {
+
+        /**
+         * Adds this module and its child modules, by relative path.
+         */
+        void collect(Map<String, ModulePlan> modulesByPath) {
+            modulesByPath.put(relativePath, this);
+            modules.forEach(module -> module.collect(modulesByPath));
+        }
+    }
+
+    /**
+     * Creating a {@link Jsonb} costs far more than reading a blueprint, and a
+     * watched blueprint is read again on every change, so a single thread-safe instance is kept.
+     */
+    private static class JsonbHolder {
+
+        private static final Jsonb JSONB = JsonbBuilder.create();
+    }
+
+    /**
+     * Result of {@link #update(GenerationPlan, Path, String, String, String, ProjectOutput)}.
+     *
+     * @param poms        pom.xml files written
+     * @param directories number of folders created
+     * @param removed     folders of the modules that are no longer in the plan, relative to the
+     *                    project folder
+     */
+    public record Update(List<Path> poms, int directories, List<String> removed) {
+
+        /**
+         * Whether the update wrote nothing and found no removed module.
+         *
+         * @return {@code true} if both plans generate the same project
+         */
+        public boolean isEmpty() {
+            return poms.isEmpty() && directories == 0 && removed.isEmpty();
+        }
+    }
+
+    /**
+     * Values of one generated project.
+     */
+    private record Target(Path projectPath,
+        String groupId,
+        String artifactId,
+        String packagePath,
+        ProjectOutput output) {
+
+    }
+}
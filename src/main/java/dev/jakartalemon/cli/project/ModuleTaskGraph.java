@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import static dev.jakartalemon.cli.util.Constants.ERRORS;
+import static dev.jakartalemon.cli.util.Constants.MESSAGE;
+import static dev.jakartalemon.cli.util.Constants.MODULE;
+import static dev.jakartalemon.cli.util.Constants.MODULES;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the generation of the modules of a project as a graph of tasks. A module starts as soon as
+ * its parent module has been created, so sibling modules are generated in parallel. Each task
+ * returns the path of the pom.xml it created, which is handed to its child tasks.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+class ModuleTaskGraph {
+
+    private final Executor executor;
+    private final Map<String, CompletableFuture<Path>> tasks = new LinkedHashMap<>();
+    private final Queue<Path> created = new ConcurrentLinkedQueue<>();
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
+
+    ModuleTaskGraph(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a task without dependencies.
+     *
+     * @param module module name, used to report errors
+     * @param task   creates the module and returns its pom.xml path
+     * @return the future of the task, to chain child modules
+     */
+    CompletableFuture<Path> submit(String module, Supplier<Path> task) {
+        return track(module, CompletableFuture.supplyAsync(() -> run(module, task), executor));
+    }
+
+    /**
+     * Adds a task that starts once its parent task has finished successfully.
+     *
+     * @param parent parent task
+     * @param module module name, used to report errors
+     * @param task   receives the parent pom.xml path, creates the module and returns its pom.xml
+     *               path
+     * @return the future of the task, to chain child modules
+     */
+    CompletableFuture<Path> after(CompletableFuture<Path> parent, String module,
+        Function<Path, Path> task) {
+        return track(module, parent.thenApplyAsync(parentPom -> run(module, () -> task.apply(
+            parentPom)), executor));
+    }
+
+    /**
+     * Waits for every task and reports the result. Modules that did not run because their parent
+     * failed are reported as errors too.
+     *
+     * @return JSON object with the created {@code modules} and the {@code errors} per module
+     */
+    JsonObject await() {
+        CompletableFuture.allOf(tasks.values().toArray(CompletableFuture[]::new))
+            .handle((result, throwable) -> result)
+            .join();
+        var modulesBuilder = Json.createArrayBuilder();
+        created.forEach(pom -> modulesBuilder.add(pom.toString()));
+        var errorsBuilder = Json.createArrayBuilder();
+        tasks.forEach((module, task) -> {
+            if (task.isCompletedExceptionally()) {
+                var message = errors.getOrDefault(module, "skipped, its parent module failed");
+                errorsBuilder.add(Json.createObjectBuilder()
+                    .add(MODULE, module)
+                    .add(MESSAGE, message));
+            }
+        });
+        return Json.createObjectBuilder()
+            .add(MODULES, modulesBuilder)
+            .add(ERRORS, errorsBuilder)
+            .build();
+    }
+
+    private CompletableFuture<Path> track(String module, CompletableFuture<Path> task) {
+        tasks.put(module, task);
+        return task;
+    }
+
+    private Path run(String module, Supplier<Path> task) {
+        try {
+            var pom = task.get();
+            created.add(pom);
+            return pom;
+        } catch (RuntimeException e) {
+            errors.put(module, Objects.toString(e.getMessage(), e.getClass().getName()));
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.project.constants.Archetype;
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+import dev.jakartalemon.cli.util.Profiler;
+import static dev.jakartalemon.cli.util.Constants.DIRECTORY_CALLS;
+import static dev.jakartalemon.cli.util.Constants.ERRORS;
+import static dev.jakartalemon.cli.util.Constants.JAVA_VERSION;
+import static dev.jakartalemon.cli.util.Constants.MODULES;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local cache of pre-rendered project skeletons, under {@code ~/.jakartalemon/cache}. A skeleton
+ * is generated once per archetype, Java version and generator version, with placeholders instead
+ * of the group id, artifact id and package. New projects are copied from it, replacing the
+ * placeholders. The cache is bounded in size, the least recently used skeletons are evicted
+ * first.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Slf4j
+public class SkeletonCache {
+
+    /**
+     * Default maximum size of the cache, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final String GROUP_ID_PLACEHOLDER = "@lemon.groupId@";
+    private static final String ARTIFACT_ID_PLACEHOLDER = "@lemon.artifactId@";
+    private static final String PACKAGE_PLACEHOLDER = "__lemon_package__";
+    private static final String LAST_USED_FILE = ".lastused";
+    private static final String TEMP_PREFIX = "tmp-";
+    private static final String POM_XML = "pom.xml";
+
+    /**
+     * Packages whose classes define what the generator writes. Every class under them, nested
+     * packages included, is part of the generator version.
+     */
+    private static final List<String> GENERATOR_PACKAGES = List.of(
+        "dev/jakartalemon/cli/project",
+        "dev/jakartalemon/cli/util",
+        "dev/jakartalemon/cli/model"
+    );
+
+    /**
+     * Resources whose content defines what the generator writes. Any change to them, or to the
+     * classes of {@link #GENERATOR_PACKAGES}, invalidates the cached skeletons.
+     */
+    private static final List<String> GENERATOR_RESOURCES = Stream.concat(Stream.of(
+        "/xml/strip.xsl"
+    ), Arrays.stream(Archetype.values()).map(GenerationPlan::blueprintResource)).toList();
+
+    private final Path cacheRoot;
+    private final long maxBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String generatorVersion = computeGeneratorVersion();
+
+    /**
+     * @param cacheRoot folder of the cache
+     * @param maxBytes  maximum size of the cache
+     */
+    public SkeletonCache(Path cacheRoot, long maxBytes) {
+        this.cacheRoot = cacheRoot;
+        this.maxBytes = maxBytes;
+    }
+
+    public static SkeletonCache getInstance() {
+        return SkeletonCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a project by copying the cached skeleton of its archetype, generating the skeleton
+     * first if it is not cached yet.
+     *
+     * @param archetype   project archetype, it must have a blueprint
+     * @param projectPath project root path
+     * @param groupId     project group id
+     * @param artifactId  project artifact id
+     * @param packageName base package of the modules
+     * @param output      where the project is written
+     * @return JSON object with the created {@code modules}, the {@code errors} per module and the
+     *         {@code directoryCalls} made to the output to create the folders
+     * @throws IOException if the skeleton could not be generated or copied
+     */
+    public JsonObject createProject(Archetype archetype,
+        Path projectPath,
+        String groupId,
+        String artifactId,
+        String packageName,
+        ProjectOutput output) throws IOException {
+        var plan = GenerationPlan.forArchetype(archetype).orElseThrow(
+            () -> new IllegalArgumentException("%s has no blueprint".formatted(archetype)));
+        var skeletonPath = cacheRoot.resolve("%s-java%s-%s".formatted(archetype, JAVA_VERSION,
+            generatorVersion));
+        List<Path> modules;
+        var directoryCalls = new AtomicInteger();
+        var rendered = false;
+        lock.readLock().lock();
+        try {
+            if (!Files.isDirectory(skeletonPath)) {
+                renderSkeleton(plan, skeletonPath);
+                rendered = true;
+            }
+            touch(skeletonPath);
+            try (var phase = Profiler.phase("cache.copy")) {
+                modules = copySkeleton(skeletonPath, projectPath, groupId, artifactId,
+                    packageName, output, directoryCalls);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (rendered) {
+            evict(skeletonPath);
+        }
+        var modulesBuilder = Json.createArrayBuilder();
+        modules.forEach(pom -> modulesBuilder.add(pom.toString()));
+        return Json.createObjectBuilder()
+            .add(MODULES, modulesBuilder)
+            .add(ERRORS, Json.createArrayBuilder())
+            .add(DIRECTORY_CALLS, directoryCalls.get())
+            .build();
+    }
+
+    /**
+     * Generates the skeleton into a temporary folder of the cache, and then moves it into place,
+     * so a skeleton is either complete or missing.
+     */
+    private void renderSkeleton(GenerationPlan plan, Path skeletonPath) throws IOException {
+        var tempPath = cacheRoot.resolve(TEMP_PREFIX + UUID.randomUUID());
+        Files.createDirectories(tempPath);
+        try {
+            var skeletonInfo = plan.generate(tempPath, GROUP_ID_PLACEHOLDER,
+                ARTIFACT_ID_PLACEHOLDER, PACKAGE_PLACEHOLDER, ProjectOutput.fileSystem(false));
+            if (!skeletonInfo.getJsonArray(ERRORS).isEmpty()) {
+                throw new IOException("could not render the skeleton: %s".formatted(skeletonInfo.
+                    getJsonArray(ERRORS)));
+            }
+            Files.move(tempPath, skeletonPath, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("skeleton rendered at {}", skeletonPath);
+        } catch (IOException e) {
+            if (!Files.isDirectory(skeletonPath)) {
+                throw e;
+            }
+            log.debug("skeleton {} rendered concurrently", skeletonPath);
+        } finally {
+            delete(tempPath);
+        }
+    }
+
+    private List<Path> copySkeleton(Path skeletonPath,
+        Path projectPath,
+        String groupId,
+        String artifactId,
+        String packageName,
+        ProjectOutput output,
+        AtomicInteger directoryCalls) throws IOException {
+        var escapedGroupId = DocumentXmlUtil.escapeText(groupId);
+        var escapedArtifactId = DocumentXmlUtil.escapeText(artifactId);
+        var packagePath = packageName.replace('.', '/');
+        List<Path> modules = new ArrayList<>();
+        Files.walkFileTree(skeletonPath, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws
+                IOException {
+                output.createDirectories(target(dir));
+                directoryCalls.incrementAndGet();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws
+                IOException {
+                if (file.getParent().equals(skeletonPath) && file.getFileName().toString().equals(
+                    LAST_USED_FILE)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                var content = Files.readString(file, StandardCharsets.UTF_8)
+                    .replace(GROUP_ID_PLACEHOLDER, escapedGroupId)
+                    .replace(ARTIFACT_ID_PLACEHOLDER, escapedArtifactId)
+                    .getBytes(StandardCharsets.UTF_8);
+                var targetFile = target(file);
+                output.write(targetFile, content);
+                if (file.getFileName().toString().equals(POM_XML)) {
+                    modules.add(targetFile);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private Path target(Path skeletonFile) {
+                var relative = skeletonPath.relativize(skeletonFile).toString()
+                    .replace(PACKAGE_PLACEHOLDER, packagePath);
+                return projectPath.resolve(relative);
+            }
+        });
+        return modules;
+    }
+
+    /**
+     * Removes the least recently used skeletons, and the skeletons of other generator versions,
+     * until the cache fits in its maximum size. The skeleton just used is never removed.
+     */
+    private void evict(Path keepPath) throws IOException {
+        lock.writeLock().lock();
+        try (var entries = Files.list(cacheRoot)) {
+            List<Path> skeletons = new ArrayList<>();
+            for (var entry : entries.toList()) {
+                var name = entry.getFileName().toString();
+                if (!entry.equals(keepPath) && !name.startsWith(TEMP_PREFIX)) {
+                    if (name.endsWith(generatorVersion)) {
+                        skeletons.add(entry);
+                    } else {
+                        delete(entry);
+                    }
+                }
+            }
+            skeletons.sort(Comparator.comparing(SkeletonCache::lastUsed));
+            var totalBytes = size(keepPath);
+            for (var skeleton : skeletons) {
+                totalBytes += size(skeleton);
+            }
+            for (var skeleton : skeletons) {
+                if (totalBytes <= maxBytes) {
+                    break;
+                }
+                totalBytes -= size(skeleton);
+                delete(skeleton);
+                log.debug("skeleton {} evicted", skeleton);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void touch(Path skeletonPath) throws IOException {
+        var lastUsedPath = skeletonPath.resolve(LAST_USED_FILE);
+        try {
+            Files.createFile(lastUsedPath);
+        } catch (FileAlreadyExistsException e) {
+            log.trace("{} already exists", lastUsedPath);
+        }
+        Files.setLastModifiedTime(lastUsedPath, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    private static FileTime lastUsed(Path skeletonPath) {
+        try {
+            return Files.getLastModifiedTime(skeletonPath.resolve(LAST_USED_FILE));
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long size(Path path) throws IOException {
+        try (var files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var files = Files.walk(path)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Hash of the classes and resources that define the generated content, so any new version of
+     * the generator uses new skeletons.
+     */
+    private static String computeGeneratorVersion() {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var resource : generatorClasses()) {
+                digest.update(resource.getBytes(StandardCharsets.UTF_8));
+                try (var is = SkeletonCache.class.getResourceAsStream(resource)) {
+                    if (is != null) {
+                        digest.update(is.readAllBytes());
+                    }
+                }
+            }
+            for (var resource : GENERATOR_RESOURCES) {
+                try (var is = SkeletonCache.class.getResourceAsStream(resource)) {
+                    if (is != null) {
+                        digest.update(is.readAllBytes());
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lists the classes of {@link #GENERATOR_PACKAGES}, sorted, from the folder or the jar the
+     * generator was loaded from.
+     */
+    private static List<String> generatorClasses() throws IOException {
+        var codeSource = SkeletonCache.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IOException("unknown location of the generator classes");
+        }
+        Path location;
+        try {
+            location = Path.of(codeSource.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+        if (Files.isDirectory(location)) {
+            return listClasses(location);
+        }
+        try (var jar = FileSystems.newFileSystem(location)) {
+            return listClasses(jar.getPath("/"));
+        }
+    }
+
+    private static List<String> listClasses(Path root) throws IOException {
+        List<String> classes = new ArrayList<>();
+        for (var generatorPackage : GENERATOR_PACKAGES) {
+            var packagePath = root.resolve(generatorPackage);
+            if (!Files.isDirectory(packagePath)) {
+                continue;
+            }
+            try (var paths = Files.walk(packagePath)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".class"))
+                    .map(path -> "/" + root.relativize(path).toString().replace(path
+                    .getFileSystem().getSeparator(), "/"))
+                    .forEach(classes::add);
+            }
+        }
+        classes.sort(Comparator.naturalOrder());
+        return classes;
+    }
+
+    private static class SkeletonCacheHolder {
+
+        private static final SkeletonCache INSTANCE = new SkeletonCache(Path.of(System.
+            getProperty("user.home"), ".jakartalemon", "cache"), DEFAULT_MAX_BYTES);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.project;
+
+import dev.jakartalemon.cli.JakartaLemonCli;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.lang3.StringUtils;
+import picocli.CommandLine;
+
+/**
+ * Generates a project from a blueprint file and keeps it up to date while the blueprint is being
+ * edited. Every saved change is compared with the previous version of the blueprint, and only the
+ * pom.xml files and folders it affects are written.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@CommandLine.Command(
+    name = "watch",
+    resourceBundle = "messages",
+    description = "Regenerate a project each time its blueprint file changes."
+)
+public class WatchCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = Logger.getLogger(WatchCommand.class.getName());
+
+    @CommandLine.Parameters(
+        index = "0",
+        descriptionKey = "watch.blueprint"
+    )
+    private Path blueprintFile;
+
+    @CommandLine.Parameters(
+        index = "1",
+        descriptionKey = "project.name"
+    )
+    private String projectName;
+
+    @CommandLine.Option(
+        names = {"-g", "--groupId"},
+        descriptionKey = "project.groupId"
+    )
+    private String groupId;
+
+    @CommandLine.Option(
+        names = {"-i", "--artifactId"},
+        descriptionKey = "project.artifactId"
+    )
+    private String artifactId;
+
+    @CommandLine.Option(
+        names = {"-p", "--package"},
+        descriptionKey = "project.package"
+    )
+    private String packageName;
+
+    @CommandLine.Option(
+        names = {"--debounce"},
+        descriptionKey = "watch.debounce"
+    )
+    private long debounceMillis = 30;
+
+    @CommandLine.ParentCommand
+    private JakartaLemonCli jakartaLemonCli;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (groupId == null) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Missing required option: '--groupId'");
+        }
+        var workingDirectory = jakartaLemonCli.getWorkingDirectory();
+        var blueprintPath = workingDirectory.resolve(blueprintFile).toAbsolutePath();
+        var projectPath = workingDirectory.resolve(projectName);
+        if (artifactId == null) {
+            artifactId = projectPath.getFileName().toString();
+        }
+        if (StringUtils.isBlank(packageName)) {
+            packageName = groupId + '.' + artifactId;
+        }
+        var out = spec.commandLine().getOut();
+        var err = spec.commandLine().getErr();
+        try (var watchService = FileSystems.getDefault().newWatchService()) {
+            blueprintPath.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            var plan = GenerationPlan.read(blueprintPath);
+            var start = System.nanoTime();
+            var result = plan.generate(projectPath, groupId, artifactId, packageName,
+                ProjectOutput.fileSystem(true));
+            CreateProjectCommand.errorsOf(result).forEach(err::println);
+            out.printf("%s generated in %d ms, watching %s%n", projectPath, elapsedMillis(start),
+                blueprintPath);
+            out.flush();
+            while (awaitChange(watchService, blueprintPath.getFileName())) {
+                start = System.nanoTime();
+                try {
+                    var updatedPlan = GenerationPlan.read(blueprintPath);
+                    var update = updatedPlan.update(plan, projectPath, groupId, artifactId,
+                        packageName, ProjectOutput.fileSystem(false));
+                    plan = updatedPlan;
+                    report(update, elapsedMillis(start));
+                } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                    err.printf("%s, waiting for the next change%n", e.getMessage());
+                    err.flush();
+                }
+            }
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * Waits until the blueprint file changes, and then until it has not changed for the debounce
+     * time, so an editor that writes a file in several steps triggers a single update.
+     *
+     * @return {@code false} if the watch service was closed
+     */
+    private boolean awaitChange(WatchService watchService, Path fileName)
+        throws InterruptedException {
+        var changed = false;
+        while (!changed) {
+            var key = watchService.take();
+            changed = isChanged(key, fileName);
+            if (!key.isValid()) {
+                return false;
+            }
+        }
+        var debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        var deadline = System.nanoTime() + debounceNanos;
+        for (var remaining = debounceNanos; remaining > 0; remaining = deadline - System
+            .nanoTime()) {
+            var key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+            if (key == null) {
+                break;
+            }
+            if (isChanged(key, fileName)) {
+                deadline = System.nanoTime() + debounceNanos;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isChanged(WatchKey key, Path fileName) {
+        var changed = key.pollEvents().stream()
+            .anyMatch(event -> event.kind() == StandardWatchEventKinds.OVERFLOW
+            || fileName.equals(event.context()));
+        key.reset();
+        return changed;
+    }
+
+    private void report(GenerationPlan.Update update, long elapsedMillis) {
+        var out = spec.commandLine().getOut();
+        if (update.isEmpty()) {
+            out.printf("No changes in the project (%d ms)%n", elapsedMillis);
+        } else {
+            out.printf("%d pom.xml written, %d folders created in %d ms%n", update.poms().size(),
+                update.directories(), elapsedMillis);
+            update.poms().forEach(pom -> out.printf("  %s%n", pom));
+            update.removed().forEach(module -> out.printf(
+                "  %s is no longer in the blueprint, its folder was kept%n", module));
+        }
+        out.flush();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -40,4 +40,9 @@ public class Constants {
     public static final String SERVICE = "service";
     public static final String MAPPER = "mapper";
     public static final String JAVA_VERSION = "17";
+    public static final String MODULES = "modules";
+    public static final String MODULE = "module";
+    public static final String ERRORS = "errors";
+    public static final String MESSAGE = "message";
+    public static final String DIRECTORY_CALLS = "directoryCalls";
 }
@@ -16,29 +16,42 @@ package dev.jakartalemon.cli.util;
  * limitations under the License.
  */
 
+import dev.jakartalemon.cli.jfr.DocumentParseEvent;
+import dev.jakartalemon.cli.jfr.DocumentSaveEvent;
+import dev.jakartalemon.cli.output.ProjectOutput;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
+import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyMap;
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
@@ -70,11 +83,14 @@ public class DocumentXmlUtil {
 
     }
 
+    /**
+     * Creates a new empty XML document.
+     *
+     * @return XML document created
+     * @throws ParserConfigurationException ParserConfigurationException
+     */
     public static Document newDocument() throws ParserConfigurationException {
-        var documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        documentBuilderFactory.setFeature(FEATURE_SECURE_PROCESSING, true);
-        var documentBuilder = documentBuilderFactory.newDocumentBuilder();
-        return documentBuilder.newDocument();
+        return ParseEngine.documentBuilder().newDocument();
     }
 
     /**
@@ -85,13 +101,16 @@ public class DocumentXmlUtil {
      * @return XML object, or empty if it failed to open.
      */
     public static Optional<Document> openDocument(Path path) {
-
-        var documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        try {
-            documentBuilderFactory.setFeature(FEATURE_SECURE_PROCESSING, true);
-            var documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            var document = documentBuilder.parse(path.toFile());
+        var event = new DocumentParseEvent();
+        event.begin();
+        try (var phase = Profiler.phase("xml.parse")) {
+            var document = ParseEngine.documentBuilder().parse(path.toFile());
             document.getDocumentElement().normalize();
+            if (event.shouldCommit()) {
+                event.path = path.toString();
+                event.bytes = Files.size(path);
+                event.commit();
+            }
             return Optional.of(document);
         } catch (ParserConfigurationException | SAXException | IOException e) {
             LOGGER.severe(e.getMessage());
@@ -109,16 +128,31 @@ public class DocumentXmlUtil {
      */
     public static List<Element> listElementsByFilter(Document document, String expression) throws
                                                                                            XPathExpressionException {
-        var xPath = XPathFactory.newInstance().newXPath();
-        var nodeList =
-            (NodeList) xPath.compile(expression).evaluate(document, XPathConstants.NODESET);
-        List<Element> elementList = new ArrayList<>();
+        var nodeList = XPathEngine.evaluate(document, expression);
+        List<Element> elementList = new ArrayList<>(nodeList.getLength());
         for (int i = 0; i < nodeList.getLength(); i++) {
             elementList.add((Element) nodeList.item(i));
         }
         return elementList;
     }
 
+    /**
+     * Gets the elements of a document that match an XPath search, without copying them into a
+     * list. Each element is taken from the result when the stream reaches it, so a short-circuit
+     * operation such as {@link Stream#findFirst()} does not visit the rest.
+     *
+     * @param document   xml document
+     * @param expression XPath search expression
+     * @return stream of DOM elements found, based on the search criteria
+     * @throws XPathExpressionException XPathExpressionException
+     */
+    public static Stream<Element> streamElementsByFilter(Document document, String expression)
+        throws XPathExpressionException {
+        var nodeList = XPathEngine.evaluate(document, expression);
+        return IntStream.range(0, nodeList.getLength())
+            .mapToObj(index -> (Element) nodeList.item(index));
+    }
+
     /**
      * Creates an element within a specified path in the XML document. Returns the created element.
      *
@@ -132,13 +166,11 @@ public class DocumentXmlUtil {
     public static Optional<Element> createElement(Document document, String inPath,
         String elementName) throws
                             XPathExpressionException {
-        var elements = listElementsByFilter(document, inPath);
-        if (!elements.isEmpty()) {
+        return streamElementsByFilter(document, inPath).findFirst().map(parent -> {
             Element element = document.createElement(elementName);
-            elements.stream().findFirst().ifPresent(elem -> elem.appendChild(element));
-            return Optional.of(element);
-        }
-        return Optional.empty();
+            parent.appendChild(element);
+            return element;
+        });
     }
 
     /**
@@ -197,23 +229,221 @@ public class DocumentXmlUtil {
      */
     public static void saveDocument(Path path, Document document,
         Map<String, String> outputProperties) {
-        try (var fos = new FileOutputStream(
-            path.toFile()); var xlsIs = DocumentXmlUtil.class.getResourceAsStream(
-            STRIP_XSL_FILE_NAME)) {
-            Source xslt = new StreamSource(xlsIs);
-            var transformerFactory = TransformerFactory.newInstance();
-            var transformer = transformerFactory.newTransformer(xslt);
-            transformer.setOutputProperty(OutputKeys.INDENT, YES);
-            transformer.setOutputProperty(OutputKeys.STANDALONE, NO);
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, NO);
-            outputProperties.forEach(transformer::setOutputProperty);
-            document.setXmlStandalone(true);
-            var source = new DOMSource(document);
-            var result = new StreamResult(fos);
-            transformer.transform(source, result);
+        var event = new DocumentSaveEvent();
+        event.begin();
+        try (var fos = new FileOutputStream(path.toFile())) {
+            transform(document, outputProperties, fos);
+            if (event.shouldCommit()) {
+                event.path = path.toString();
+                event.bytes = fos.getChannel().position();
+                event.commit();
+            }
+        } catch (IOException | TransformerException e) {
+            LOGGER.severe(e.getMessage());
+        }
+    }
+
+    /**
+     * Escapes a value as the text of an element, the same way documents are rendered.
+     *
+     * @param value text value
+     * @return escaped text
+     */
+    public static String escapeText(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Renders an XML document and writes it through a project output, which decides whether the
+     * file is actually written.
+     *
+     * @param path     Path where the xml document will be saved
+     * @param document XML document to save
+     * @param output   where the document is written
+     * @return {@code true} if the file was written
+     */
+    public static boolean saveDocument(Path path, Document document, ProjectOutput output) {
+        var event = new DocumentSaveEvent();
+        event.begin();
+        try {
+            var content = renderDocument(document, emptyMap());
+            var written = output.write(path, content);
+            if (event.shouldCommit()) {
+                event.path = path.toString();
+                event.bytes = content.length;
+                event.commit();
+            }
+            return written;
         } catch (IOException | TransformerException e) {
             LOGGER.severe(e.getMessage());
         }
+        return false;
+    }
+
+    /**
+     * Renders an XML document with the same format used by
+     * {@link #saveDocument(Path, Document, Map)}.
+     *
+     * @param document         XML document to render
+     * @param outputProperties transformation properties. See {@link OutputKeys}
+     * @return rendered document
+     * @throws TransformerException if the document could not be rendered
+     */
+    public static byte[] renderDocument(Document document, Map<String, String> outputProperties)
+        throws TransformerException {
+        try (var phase = Profiler.phase("xslt.transform")) {
+            var bytes = new ByteArrayOutputStream();
+            transform(document, outputProperties, bytes);
+            return bytes.toByteArray();
+        }
+    }
+
+    private static void transform(Document document, Map<String, String> outputProperties,
+        OutputStream outputStream) throws TransformerException {
+        var transformer = SaveEngine.transformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, YES);
+        transformer.setOutputProperty(OutputKeys.STANDALONE, NO);
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, NO);
+        outputProperties.forEach(transformer::setOutputProperty);
+        document.setXmlStandalone(true);
+        var source = new DOMSource(document);
+        var result = new StreamResult(outputStream);
+        transformer.transform(source, result);
+    }
+
+    /**
+     * Keeps the strip stylesheet compiled once, and hands out one reusable transformer per thread.
+     * {@link Templates} are thread-safe, but the transformers created from them are not.
+     */
+    private static class SaveEngine {
+
+        private static final Templates STRIP_TEMPLATES = compileStripTemplates();
+        private static final ThreadLocal<Transformer> TRANSFORMERS = ThreadLocal.withInitial(
+            SaveEngine::newTransformer);
+
+        private SaveEngine() {
+        }
+
+        /**
+         * Returns the transformer of the current thread, restored to its original state.
+         *
+         * @return transformer ready to be configured
+         */
+        static Transformer transformer() {
+            var transformer = TRANSFORMERS.get();
+            transformer.reset();
+            return transformer;
+        }
+
+        private static Transformer newTransformer() {
+            try {
+                return STRIP_TEMPLATES.newTransformer();
+            } catch (TransformerConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static Templates compileStripTemplates() {
+            try (var xlsIs = DocumentXmlUtil.class.getResourceAsStream(STRIP_XSL_FILE_NAME)) {
+                return TransformerFactory.newInstance().newTemplates(new StreamSource(xlsIs));
+            } catch (IOException | TransformerConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Creates the document builders. The factory is looked up and configured once, and each thread
+     * reuses its own builder, which is reset before every use.
+     */
+    private static class ParseEngine {
+
+        private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY
+            = newDocumentBuilderFactory();
+        private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<>();
+
+        private ParseEngine() {
+        }
+
+        /**
+         * Returns the document builder of the current thread, restored to its original state.
+         *
+         * @return document builder ready to parse or create a document
+         * @throws ParserConfigurationException if the builder could not be created
+         */
+        static DocumentBuilder documentBuilder() throws ParserConfigurationException {
+            var documentBuilder = DOCUMENT_BUILDERS.get();
+            if (documentBuilder == null) {
+                synchronized (DOCUMENT_BUILDER_FACTORY) {
+                    documentBuilder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+                }
+                DOCUMENT_BUILDERS.set(documentBuilder);
+            } else {
+                documentBuilder.reset();
+            }
+            return documentBuilder;
+        }
+
+        private static DocumentBuilderFactory newDocumentBuilderFactory() {
+            var documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            try {
+                documentBuilderFactory.setFeature(FEATURE_SECURE_PROCESSING, true);
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
+            return documentBuilderFactory;
+        }
+    }
+
+    /**
+     * Compiles the XPath expressions once per thread. {@link XPath} and {@link XPathExpression}
+     * are not thread-safe, so each thread keeps its own evaluator and its own cache of the most
+     * recently used expressions.
+     */
+    private static class XPathEngine {
+
+        private static final int MAX_CACHED_EXPRESSIONS = 64;
+        private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+        private static final ThreadLocal<XPathEngine> ENGINES = ThreadLocal.withInitial(
+            XPathEngine::new);
+
+        private final XPath xPath;
+        private final Map<String, XPathExpression> expressions = new LinkedHashMap<>(16, 0.75f,
+            true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                return size() > MAX_CACHED_EXPRESSIONS;
+            }
+        };
+
+        private XPathEngine() {
+            synchronized (XPATH_FACTORY) {
+                xPath = XPATH_FACTORY.newXPath();
+            }
+        }
+
+        /**
+         * Evaluates an expression with the evaluator of the current thread.
+         *
+         * @param document   xml document
+         * @param expression XPath search expression
+         * @return nodes found
+         * @throws XPathExpressionException if the expression is not valid
+         */
+        static NodeList evaluate(Document document, String expression) throws
+            XPathExpressionException {
+            return (NodeList) ENGINES.get().compile(expression).evaluate(document,
+                XPathConstants.NODESET);
+        }
+
+        private XPathExpression compile(String expression) throws XPathExpressionException {
+            var compiled = expressions.get(expression);
+            if (compiled == null) {
+                compiled = xPath.compile(expression);
+                expressions.put(expression, compiled);
+            }
+            return compiled;
+        }
     }
 
     /**
@@ -232,14 +462,12 @@ public class DocumentXmlUtil {
         }
 
         private final String tagName;
-        private final Set<String[]> attributes;
-        private final Set<ElementBuilder> children;
+        private final List<String[]> attributes = new ArrayList<>(0);
+        private final List<ElementBuilder> children = new ArrayList<>(0);
         private String textContent;
 
         private ElementBuilder(String tagName) {
             this.tagName = tagName;
-            attributes = new LinkedHashSet<>();
-            children = new LinkedHashSet<>();
         }
 
         /**
@@ -0,0 +1,740 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.MODULE;
+import static dev.jakartalemon.cli.util.Constants.MODULES;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.DTD;
+import static javax.xml.stream.XMLStreamConstants.END_DOCUMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.ENTITY_REFERENCE;
+import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Edits an existing pom.xml in a single streaming pass. Only the edited elements are written
+ * again: the rest of the file is copied as it was read, so comments, formatting and the order of
+ * the elements are kept, and the memory used does not depend on the size of the file.
+ * <p>
+ * New elements are indented like their siblings. A missing {@code dependencies},
+ * {@code modules} or {@code properties} element is created at the end of the project.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+@Slf4j
+public class PomPatcher {
+
+    private static final String PROJECT_PATH = "/project";
+    private static final String DEPENDENCIES_PATH = PROJECT_PATH + "/dependencies";
+    private static final String MODULES_PATH = PROJECT_PATH + "/" + MODULES;
+    private static final String PROPERTIES_PATH = PROJECT_PATH + "/properties";
+    private static final String DEFAULT_INDENT = "    ";
+    private static final int PROLOG_LENGTH = 256;
+    private static final Pattern ENCODING_PATTERN = Pattern.compile(
+        "^<\\?xml[^>]*encoding\\s*=\\s*[\"']([A-Za-z0-9._-]+)[\"']");
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final Set<String> requiredPaths = new LinkedHashSet<>();
+    private final Map<String, List<Insertion>> insertions = new LinkedHashMap<>();
+
+    private PomPatcher() {
+    }
+
+    /**
+     * Creates a patcher without operations.
+     *
+     * @return new patcher
+     */
+    public static PomPatcher newInstance() {
+        return new PomPatcher();
+    }
+
+    /**
+     * Replaces the text of an existing element. The element must exist.
+     *
+     * @param path  absolute path of the element, for example {@code /project/version}
+     * @param value new text of the element
+     * @return this patcher
+     */
+    public PomPatcher setValue(String path, String value) {
+        values.put(path, value);
+        requiredPaths.add(path);
+        return this;
+    }
+
+    /**
+     * Sets a property of the project, replacing its value if it already exists.
+     *
+     * @param name  property name
+     * @param value property value
+     * @return this patcher
+     */
+    public PomPatcher setProperty(String name, String value) {
+        values.put(PROPERTIES_PATH + "/" + name, value);
+        return insert(PROPERTIES_PATH, new Insertion(name, value, Map.of(),
+            child -> child.name().equals(name)));
+    }
+
+    /**
+     * Adds a module to the project, unless it is already listed.
+     *
+     * @param module module name
+     * @return this patcher
+     */
+    public PomPatcher addModule(String module) {
+        return insert(MODULES_PATH, new Insertion(MODULE, module, Map.of(),
+            child -> child.name().equals(MODULE) && child.text().equals(module)));
+    }
+
+    /**
+     * Adds a dependency to the project, unless there is already a dependency with the same groupId
+     * and artifactId. Its elements are written in the Maven coordinates order.
+     *
+     * @param dependency dependency elements, such as groupId, artifactId, version or scope
+     * @return this patcher
+     */
+    public PomPatcher addDependency(Map<String, String> dependency) {
+        var sortedDependency = new TreeMap<String, String>(PomUtil.COORDINATES_COMPARATOR);
+        sortedDependency.putAll(dependency);
+        return insert(DEPENDENCIES_PATH, new Insertion("dependency", null, sortedDependency,
+            child -> child.name().equals("dependency")
+            && Objects.equals(child.values().get(GROUP_ID), dependency.get(GROUP_ID))
+            && Objects.equals(child.values().get(ARTIFACT_ID), dependency.get(ARTIFACT_ID))));
+    }
+
+    /**
+     * Applies the operations to a pom.xml. The patched file is written next to it and then moved
+     * over it, so the pom.xml is never left half written.
+     *
+     * @param pomPath pom.xml path
+     * @throws IOException if the file could not be read, is not valid XML, or an element given to
+     *                     {@link #setValue(String, String)} does not exist
+     */
+    public void patch(Path pomPath) throws IOException {
+        var charset = encodingOf(pomPath);
+        var tempPath = Files.createTempFile(pomPath.toAbsolutePath().getParent(), "pom", ".tmp");
+        try {
+            try (var reader = Files.newBufferedReader(pomPath, charset);
+                var writer = Files.newBufferedWriter(tempPath, charset)) {
+                patch(reader, writer);
+            }
+            Files.move(tempPath, pomPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            log.info("{} patched", pomPath.toAbsolutePath());
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Applies the operations to a pom.xml read from a stream.
+     *
+     * @param reader source pom.xml
+     * @param writer where the patched pom.xml is written
+     * @throws IOException if the source could not be read, is not valid XML, or an element given
+     *                     to {@link #setValue(String, String)} does not exist
+     */
+    public void patch(Reader reader, Writer writer) throws IOException {
+        var source = new CopyingReader(reader);
+        XMLStreamReader xml = null;
+        try {
+            xml = newXmlStreamReader(source);
+            new PatchRun(source, writer, xml).run();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    log.debug(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private PomPatcher insert(String containerPath, Insertion insertion) {
+        insertions.computeIfAbsent(containerPath, path -> new ArrayList<>()).add(insertion);
+        return this;
+    }
+
+    private static Charset encodingOf(Path pomPath) throws IOException {
+        byte[] prolog;
+        try (InputStream is = Files.newInputStream(pomPath)) {
+            prolog = is.readNBytes(PROLOG_LENGTH);
+        }
+        var matcher = ENCODING_PATTERN.matcher(new String(prolog, StandardCharsets.ISO_8859_1)
+            .replace("\uFEFF", "").replace("\u00EF\u00BB\u00BF", ""));
+        return matcher.find() ? Charset.forName(matcher.group(1)) : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Creates a parser from the shared factory, which is not thread-safe while it creates one.
+     */
+    static XMLStreamReader newXmlStreamReader(Reader reader) throws XMLStreamException {
+        synchronized (XML_INPUT_FACTORY) {
+            return XML_INPUT_FACTORY.createXMLStreamReader(reader);
+        }
+    }
+
+    /**
+     * Creates a parser from the shared factory. The encoding is detected by the parser.
+     */
+    static XMLStreamReader newXmlStreamReader(InputStream is) throws XMLStreamException {
+        synchronized (XML_INPUT_FACTORY) {
+            return XML_INPUT_FACTORY.createXMLStreamReader(is);
+        }
+    }
+
+    /**
+     * The JDK parser is taken directly: looking up a provider on the class path is slow on the
+     * first call, and the location of events is only checked against this parser.
+     */
+    private static XMLInputFactory newXmlInputFactory() {
+        var xmlInputFactory = XMLInputFactory.newDefaultFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+
+    /**
+     * Element to insert into a container element, with either a text or child elements.
+     *
+     * @param name     element name
+     * @param text     element text, or {@code null} if it has child elements
+     * @param children child element names and texts
+     * @param present  tells if an existing child of the container is already this element
+     */
+    private record Insertion(String name, String text, Map<String, String> children,
+        Predicate<Child> present) {
+
+    }
+
+    /**
+     * Existing child of a container element.
+     *
+     * @param name   element name
+     * @param text   element text, trimmed
+     * @param values texts of its own child elements
+     */
+    private record Child(String name, String text, Map<String, String> values) {
+
+    }
+
+    /**
+     * Open element while the file is read.
+     */
+    private static final class Frame {
+
+        private final Frame parent;
+        private final String qualifiedName;
+        private final String localName;
+        private final String path;
+        private final String indent;
+        private final boolean collect;
+        private final StringBuilder text = new StringBuilder();
+        private final Map<String, String> values = new HashMap<>();
+        private String childIndent;
+        private boolean selfClosing;
+        private boolean expanded;
+
+        private Frame(Frame parent, String qualifiedName, String localName, String path,
+            String indent, boolean collect) {
+            this.parent = parent;
+            this.qualifiedName = qualifiedName;
+            this.localName = localName;
+            this.path = path;
+            this.indent = indent;
+            this.collect = collect;
+        }
+    }
+
+    /**
+     * A single pass over a pom.xml.
+     * <p>
+     * The parser tells the kind of each event, but not reliably where it ends: the character
+     * offset of its location is wrong once it refills its buffer. So each event is located by
+     * scanning the characters kept by the reader, starting at the end of the previous event.
+     * <p>
+     * Whitespace is not copied when it is read, but with the next event, so new elements can be
+     * inserted between the last child of a container and the whitespace before its end tag.
+     */
+    private final class PatchRun {
+
+        private final CopyingReader source;
+        private final Writer writer;
+        private final XMLStreamReader xml;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final Set<String> applied = new LinkedHashSet<>();
+        private final Set<String> containersFound = new LinkedHashSet<>();
+        private final Set<Insertion> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        private String lineSeparator;
+        private String indentUnit;
+        private String whitespace = "";
+        private int position;
+        private Frame replacing;
+
+        private PatchRun(CopyingReader source, Writer writer, XMLStreamReader xml) {
+            this.source = source;
+            this.writer = writer;
+            this.xml = xml;
+        }
+
+        void run() throws XMLStreamException, IOException {
+            while (xml.hasNext()) {
+                var event = xml.next();
+                if (event == END_DOCUMENT) {
+                    break;
+                }
+                var end = endOf(event);
+                switch (event) {
+                    case START_ELEMENT ->
+                        startElement(end);
+                    case END_ELEMENT ->
+                        endElement(end);
+                    case CHARACTERS, CDATA, SPACE ->
+                        characters(end);
+                    default -> {
+                        copy(end);
+                        whitespace = "";
+                    }
+                }
+                position = end;
+            }
+            source.copyRemaining(writer);
+            var missing = new LinkedHashSet<>(requiredPaths);
+            missing.removeAll(applied);
+            if (!missing.isEmpty()) {
+                throw new IOException("%s not found".formatted(String.join(", ", missing)));
+            }
+        }
+
+        private int endOf(int event) throws XMLStreamException {
+            var start = position == 0 ? afterDeclaration() : position;
+            var end = switch (event) {
+                case START_ELEMENT ->
+                    tagEnd(source.indexOf("<", start));
+                case END_ELEMENT ->
+                    frames.peek() != null && frames.peek().selfClosing ? position : tagEnd(
+                    position);
+                case CHARACTERS, CDATA, SPACE ->
+                    textEnd(position);
+                case COMMENT ->
+                    endOf(source.indexOf("<!--", start), "-->");
+                case PROCESSING_INSTRUCTION ->
+                    endOf(source.indexOf("<?", start), "?>");
+                case ENTITY_REFERENCE ->
+                    endOf(position, ";");
+                case DTD ->
+                    tagEnd(source.indexOf("<!", start));
+                default ->
+                    position;
+            };
+            if (end < 0) {
+                throw new XMLStreamException("could not locate event %d".formatted(event),
+                    xml.getLocation());
+            }
+            return end;
+        }
+
+        private int afterDeclaration() {
+            var start = source.startsWith("\uFEFF", 0) ? 1 : 0;
+            return source.startsWith("<?xml", start) ? endOf(start, "?>") : start;
+        }
+
+        private int endOf(int start, String terminator) {
+            var index = start < 0 ? -1 : source.indexOf(terminator, start);
+            return index < 0 ? -1 : index + terminator.length();
+        }
+
+        /**
+         * End of a tag or declaration: the first {@code >} outside quotes and brackets.
+         */
+        private int tagEnd(int start) {
+            if (start < 0) {
+                return -1;
+            }
+            var quote = 0;
+            var depth = 0;
+            for (var index = start + 1; index < source.readEnd(); index++) {
+                var c = source.charAt(index);
+                if (quote != 0) {
+                    quote = c == quote ? 0 : quote;
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == '>' && depth <= 0) {
+                    return index + 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * End of a text, which may contain CDATA sections: the first {@code <} that does not open
+         * a CDATA section.
+         */
+        private int textEnd(int start) {
+            var index = source.indexOf("<", start);
+            while (index >= 0 && source.startsWith("<![CDATA[", index)) {
+                index = source.indexOf("<", endOf(index, "]]>"));
+            }
+            return index;
+        }
+
+        private void startElement(int end) throws IOException {
+            var parent = frames.peek();
+            var localName = xml.getLocalName();
+            var prefix = xml.getPrefix();
+            var qualifiedName = prefix == null || prefix.isEmpty() ? localName : prefix + ':'
+                + localName;
+            var path = (parent == null ? "" : parent.path) + '/' + localName;
+            var frame = new Frame(parent, qualifiedName, localName, path, parent == null ? ""
+                : indentOf(whitespace),
+                parent != null && (insertions.containsKey(parent.path) || parent.collect));
+            if (parent != null) {
+                parent.childIndent = frame.indent;
+                learnIndentUnit(parent.indent, frame.indent);
+            }
+            frame.selfClosing = source.startsWith("/>", end - 2);
+            frames.push(frame);
+            whitespace = "";
+            if (replacing != null) {
+                source.skipTo(end);
+                return;
+            }
+            if (insertions.containsKey(path)) {
+                containersFound.add(path);
+            }
+            var value = values.get(path);
+            var expand = value != null || insertions.containsKey(path);
+            if (expand && frame.selfClosing) {
+                copy(position);
+                var tag = source.text(position, end);
+                writer.write(tag.substring(0, tag.length() - 2).stripTrailing() + '>');
+                source.skipTo(end);
+                frame.expanded = value == null;
+            } else {
+                copy(end);
+            }
+            if (value != null) {
+                applied.add(path);
+                writer.write(DocumentXmlUtil.escapeText(value));
+                frame.text.append(value);
+                replacing = frame;
+            }
+        }
+
+        private void characters(int end) throws IOException {
+            var text = xml.getText();
+            var frame = frames.peek();
+            if (frame != null && frame.collect && frame != replacing) {
+                frame.text.append(text);
+            }
+            if (replacing != null) {
+                source.skipTo(end);
+                whitespace = "";
+            } else if (xml.isWhiteSpace()) {
+                // the parser normalizes line breaks, so they are taken from the source
+                whitespace = source.text(position, end);
+                if (lineSeparator == null && whitespace.indexOf('\n') >= 0) {
+                    lineSeparator = whitespace.contains("\r\n") ? "\r\n" : "\n";
+                }
+            } else {
+                copy(end);
+                whitespace = "";
+            }
+        }
+
+        private void endElement(int end) throws IOException {
+            var frame = frames.pop();
+            if (replacing != null && replacing != frame) {
+                source.skipTo(end);
+                return;
+            }
+            if (replacing == frame) {
+                replacing = null;
+                source.skipTo(position);
+                if (frame.selfClosing) {
+                    writer.write("</" + frame.qualifiedName + '>');
+                }
+            } else {
+                var inserted = writeInsertions(frame);
+                if (frame.path.equals(PROJECT_PATH)) {
+                    inserted |= writeMissingContainers(frame);
+                }
+                if (frame.expanded) {
+                    writer.write(lineSeparator() + Objects.toString(frame.indent, "") + "</"
+                        + frame.qualifiedName + '>');
+                } else if (inserted && whitespace.isEmpty() && frame.indent != null) {
+                    writer.write(lineSeparator() + frame.indent);
+                }
+            }
+            copy(end);
+            whitespace = "";
+            var parent = frame.parent;
+            if (parent != null && parent.collect || parent != null && insertions.containsKey(
+                parent.path)) {
+                var child = new Child(frame.localName, frame.text.toString().trim(),
+                    frame.values);
+                parent.values.put(child.name(), child.text());
+                // runs once per child of a container, thousands of times in a large reactor
+                for (var insertion : insertions.getOrDefault(parent.path, List.of())) {
+                    if (!present.contains(insertion) && insertion.present().test(child)) {
+                        present.add(insertion);
+                    }
+                }
+            }
+        }
+
+        private boolean writeInsertions(Frame container) throws IOException {
+            var pending = pending(container.path);
+            var childIndent = container.childIndent != null ? container.childIndent
+                : Objects.toString(container.indent, "") + indentUnit();
+            for (var insertion : pending) {
+                writer.write(lineSeparator());
+                writeElement(insertion, childIndent);
+            }
+            return !pending.isEmpty();
+        }
+
+        private boolean writeMissingContainers(Frame project) throws IOException {
+            var inserted = false;
+            var childIndent = project.childIndent != null ? project.childIndent
+                : Objects.toString(project.indent, "") + indentUnit();
+            for (var containerPath : insertions.keySet()) {
+                var pending = pending(containerPath);
+                if (containersFound.contains(containerPath) || pending.isEmpty()) {
+                    continue;
+                }
+                var name = containerPath.substring(containerPath.lastIndexOf('/') + 1);
+                writer.write(lineSeparator() + childIndent + '<' + name + '>');
+                for (var insertion : pending) {
+                    writer.write(lineSeparator());
+                    writeElement(insertion, childIndent + indentUnit());
+                }
+                writer.write(lineSeparator() + childIndent + "</" + name + '>');
+                inserted = true;
+            }
+            return inserted;
+        }
+
+        private List<Insertion> pending(String containerPath) {
+            return insertions.getOrDefault(containerPath, List.of()).stream()
+                .filter(insertion -> !present.contains(insertion))
+                .toList();
+        }
+
+        private void writeElement(Insertion insertion, String indent) throws IOException {
+            writer.write(indent + '<' + insertion.name() + '>');
+            if (insertion.text() != null) {
+                writer.write(DocumentXmlUtil.escapeText(insertion.text()));
+            } else {
+                for (var entry : insertion.children().entrySet()) {
+                    writer.write(lineSeparator() + indent + indentUnit() + '<' + entry.getKey()
+                        + '>' + DocumentXmlUtil.escapeText(entry.getValue()) + "</"
+                        + entry.getKey() + '>');
+                }
+                writer.write(lineSeparator() + indent);
+            }
+            writer.write("</" + insertion.name() + '>');
+            present.add(insertion);
+        }
+
+        private void learnIndentUnit(String parentIndent, String childIndent) {
+            if (indentUnit == null && parentIndent != null && childIndent != null
+                && childIndent.length() > parentIndent.length()
+                && childIndent.startsWith(parentIndent)) {
+                indentUnit = childIndent.substring(parentIndent.length());
+            }
+        }
+
+        private String indentUnit() {
+            return indentUnit != null ? indentUnit : DEFAULT_INDENT;
+        }
+
+        private String lineSeparator() {
+            return lineSeparator != null ? lineSeparator : "\n";
+        }
+
+        private void copy(int offset) throws IOException {
+            source.copyTo(offset, writer);
+        }
+
+        /**
+         * Indent of a tag, from the whitespace before it: the part after the last line break, or
+         * {@code null} if the tag is on the same line as the previous one.
+         */
+        private static String indentOf(String whitespace) {
+            var lineBreak = whitespace.lastIndexOf('\n');
+            return lineBreak < 0 ? null : whitespace.substring(lineBreak + 1);
+        }
+    }
+
+    /**
+     * Keeps the characters read by the parser until they are copied to the output or skipped.
+     * Only the characters between the last copied event and the read-ahead of the parser are
+     * kept. Offsets are counted from the start of the source.
+     */
+    private static final class CopyingReader extends FilterReader {
+
+        private static final int COMPACT_THRESHOLD = 8192;
+
+        private final StringBuilder buffer = new StringBuilder();
+        private int bufferStart;
+        private int pendingStart;
+
+        private CopyingReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var c = super.read();
+            if (c >= 0) {
+                buffer.append((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            var read = super.read(cbuf, off, len);
+            if (read > 0) {
+                buffer.append(cbuf, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var skipped = new char[(int) Math.min(n, COMPACT_THRESHOLD)];
+            var read = read(skipped, 0, skipped.length);
+            return Math.max(read, 0);
+        }
+
+        /**
+         * The parser closes its input at the end of the document, but the rest of the file still
+         * has to be copied, and the reader belongs to the caller.
+         */
+        @Override
+        public void close() {
+        }
+
+        int readEnd() {
+            return bufferStart + buffer.length();
+        }
+
+        char charAt(int offset) {
+            return buffer.charAt(offset - bufferStart);
+        }
+
+        String text(int from, int to) {
+            return buffer.substring(from - bufferStart, to - bufferStart);
+        }
+
+        int indexOf(String str, int from) {
+            var index = buffer.indexOf(str, from - bufferStart);
+            return index < 0 ? -1 : index + bufferStart;
+        }
+
+        boolean startsWith(String prefix, int offset) {
+            var index = offset - bufferStart;
+            if (index + prefix.length() > buffer.length()) {
+                return false;
+            }
+            for (var i = 0; i < prefix.length(); i++) {
+                if (buffer.charAt(index + i) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void copyTo(int offset, Writer writer) throws IOException {
+            if (offset > pendingStart) {
+                writer.append(buffer, pendingStart - bufferStart, offset - bufferStart);
+                skipTo(offset);
+            }
+        }
+
+        /**
+         * Drops the characters before an offset. The buffer is compacted only once the dropped
+         * part is large, so each character is moved a bounded number of times.
+         */
+        void skipTo(int offset) {
+            if (offset <= pendingStart) {
+                return;
+            }
+            pendingStart = offset;
+            var dropped = pendingStart - bufferStart;
+            if (dropped >= COMPACT_THRESHOLD && dropped * 2 >= buffer.length()) {
+                buffer.delete(0, dropped);
+                bufferStart = pendingStart;
+            }
+        }
+
+        void copyRemaining(Writer writer) throws IOException {
+            var chunk = new char[COMPACT_THRESHOLD];
+            while (read(chunk, 0, chunk.length) >= 0) {
+                copyTo(readEnd(), writer);
+            }
+            copyTo(readEnd(), writer);
+        }
+    }
+}
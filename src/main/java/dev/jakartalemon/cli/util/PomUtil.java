@@ -15,15 +15,27 @@
  */
 package dev.jakartalemon.cli.util;
 
+import dev.jakartalemon.cli.jfr.PomRenderEvent;
+import dev.jakartalemon.cli.model.MavenPom;
 import dev.jakartalemon.cli.model.PomModel;
-import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+import dev.jakartalemon.cli.output.DirectoryPlan;
+import dev.jakartalemon.cli.output.ProjectOutput;
 import lombok.extern.slf4j.Slf4j;
 
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
 
 /**
  * @author Diego Silva <diego.silva at apuntesdejava.com>
@@ -38,6 +50,33 @@ public class PomUtil {
         return PomUtilHolder.INSTANCE;
     }
 
+    /**
+     * Order of the elements of a parent or a dependency. Elements not listed go after them, in
+     * alphabetical order.
+     */
+    private static final List<String> COORDINATES_ORDER = List.of(GROUP_ID, ARTIFACT_ID, VERSION,
+        "type", "classifier", "scope", "systemPath", "optional");
+    private static final String PACKAGING = "packaging";
+    private static final String PARENT = "parent";
+
+    /**
+     * Elements that identify a project, read by {@link #readCoordinates(Path)}.
+     */
+    private static final Set<String> COORDINATES_ELEMENTS = Set.of(GROUP_ID, ARTIFACT_ID,
+        VERSION, PACKAGING);
+
+    /**
+     * Sections of a project that follow its coordinates in the order of the Maven POM reference.
+     * {@link #readCoordinates(Path)} stops at the first of them.
+     */
+    private static final Set<String> BODY_ELEMENTS = Set.of("modules", "properties",
+        "dependencyManagement", "dependencies", "build", "reporting", "profiles", "repositories",
+        "pluginRepositories", "distributionManagement");
+
+    static final Comparator<String> COORDINATES_COMPARATOR = Comparator.<String>comparingInt(
+        key -> COORDINATES_ORDER.contains(key) ? COORDINATES_ORDER.indexOf(key)
+        : COORDINATES_ORDER.size()).thenComparing(Comparator.naturalOrder());
+
     /**
      * @param modulePath the value of modulePath
      * @param pomModel
@@ -45,102 +84,174 @@ public class PomUtil {
      */
     public Optional<Path> createPom(Path modulePath,
         PomModel pomModel) {
+        return createPom(modulePath, pomModel, ProjectOutput.fileSystem(false));
+    }
+
+    /**
+     * Creates the pom.xml of a module. The output only depends on the model: parent and dependency
+     * elements follow the Maven coordinates order, and properties are sorted by name, whatever the
+     * iteration order of the maps of the model.
+     *
+     * @param modulePath  module path
+     * @param pomModel    pom.xml model
+     * @param output      where the pom.xml is written
+     * @return the pom.xml path, or {@link Optional#empty()} if it could not be created
+     */
+    public Optional<Path> createPom(Path modulePath,
+        PomModel pomModel,
+        ProjectOutput output) {
         try {
-            Files.createDirectories(modulePath);
+            output.createDirectories(modulePath);
             var pomPath = modulePath.resolve("pom.xml");
-            var pomXml = DocumentXmlUtil.newDocument();
-            var projectElemBuilder = ElementBuilder.newInstance("project")
-                .addAttribute("xmlns", "http://maven.apache.org/POM/4.0.0")
-                .addAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance")
-                .addAttribute("xsi:schemaLocation",
-                    "http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0"
-                    + ".xsd");
-            Optional.ofNullable(pomModel.getModelVersion()).ifPresent(
-                modelVersion -> projectElemBuilder.addChild(ElementBuilder.newInstance(
-                    "modelVersion")
-                    .setTextContent(modelVersion)));
-            //creando groupId
-            Optional.ofNullable(pomModel.getGroupId()).ifPresent(groupId -> projectElemBuilder.
-                addChild(
-                    ElementBuilder.newInstance("groupId")
-                        .setTextContent(groupId)));
-            //creando parent
-            Optional.ofNullable(pomModel.getParent()).ifPresent(parent -> {
-                var parentElementBuilder = ElementBuilder.newInstance("parent");
-                projectElemBuilder.addChild(parentElementBuilder);
-                parent.forEach(
-                    (key, value) -> parentElementBuilder.addChild(ElementBuilder.newInstance(key)
-                        .setTextContent(value)));
-            });
-            Optional.ofNullable(pomModel.getVersion()).ifPresent(version -> projectElemBuilder.
-                addChild(
-                    ElementBuilder.newInstance("version")
-                        .setTextContent(version)));
-            projectElemBuilder
-                .addChild(ElementBuilder.newInstance("artifactId").setTextContent(pomModel.
-                    getArtifactId()))
-                .addChild(ElementBuilder.newInstance("packaging").setTextContent(pomModel.
-                    getPackaging()));
-            //creando modules
-            Optional.ofNullable(pomModel.getModules()).ifPresent(modules -> {
-                var modulesElementBuilder = ElementBuilder.newInstance("modules");
-                projectElemBuilder.addChild(modulesElementBuilder);
-                modules.forEach(module -> modulesElementBuilder.addChild(
-                    ElementBuilder.newInstance("module").setTextContent(module)
-                ));
-            });
-            //creando dependencias
-            Optional.ofNullable(pomModel.getDependencies()).ifPresent(dependencies -> {
-                var dependenciesElementBuilder = ElementBuilder.newInstance("dependencies");
-                projectElemBuilder.addChild(dependenciesElementBuilder);
-
-                dependencies.forEach(dependency -> {
-                    var dependencyElementBuilder = ElementBuilder.newInstance("dependency");
-                    dependenciesElementBuilder.addChild(dependencyElementBuilder);
-
-                    dependency.forEach((key, value) -> dependencyElementBuilder.addChild(
-                        ElementBuilder.newInstance(key)
-                            .setTextContent(value)));
-                });
-            });
-            //creando properties
-            Optional.ofNullable(pomModel.getProperties()).ifPresent(properties -> {
-                var propsElementBuilder = ElementBuilder.newInstance("properties");
-                projectElemBuilder.addChild(propsElementBuilder);
-                properties.forEach(
-                    (key, value) -> propsElementBuilder.addChild(ElementBuilder.newInstance(key)
-                        .setTextContent(value)));
-            });
-            pomXml.appendChild(projectElemBuilder.build(pomXml));
-            DocumentXmlUtil.saveDocument(pomPath, pomXml);
-            log.info("{} saved", pomPath.toAbsolutePath());
+            if (output.write(pomPath, renderPom(pomModel))) {
+                log.info("{} saved", pomPath.toAbsolutePath());
+            } else {
+                log.info("{} unchanged", pomPath.toAbsolutePath());
+            }
             return Optional.ofNullable(pomPath);
-        } catch (IOException | ParserConfigurationException ex) {
+        } catch (IOException | IllegalArgumentException ex) {
             log.error(ex.getMessage(), ex);
         }
         return Optional.empty();
 
     }
 
-    public void createJavaProjectStructure(Path sourcePath, String... packagesName) {
+    /**
+     * Renders the pom.xml of a module, with the same content written by
+     * {@link #createPom(Path, PomModel, ProjectOutput)}.
+     *
+     * @param pomModel pom.xml model
+     * @return pom.xml content
+     * @throws IllegalArgumentException if the model has an element that is not valid
+     */
+    public byte[] renderPom(PomModel pomModel) {
+        return renderPom(MavenPom.from(pomModel));
+    }
+
+    /**
+     * Renders a typed pom.xml with {@link PomWriter}. Parent and dependency elements follow the
+     * Maven coordinates order, properties are sorted by name.
+     *
+     * @param pom typed pom.xml
+     * @return pom.xml content
+     * @throws IllegalArgumentException if a property name is not a valid element name
+     */
+    public byte[] renderPom(MavenPom pom) {
+        var event = new PomRenderEvent();
+        event.begin();
+        byte[] content;
+        try (var phase = Profiler.phase("pom.write")) {
+            content = PomWriter.render(pom);
+        }
+        if (event.shouldCommit()) {
+            event.module = pom.artifactId();
+            event.bytes = content.length;
+            event.commit();
+        }
+        return content;
+    }
+
+    /**
+     * Creates the Maven source and resource folders of a module, plus the directories of each
+     * package given by parameter.
+     *
+     * @param sourcePath   module path
+     * @param packagesName packages to create under {@code src/main/java}
+     * @return the {@code src/main/java} path, or {@link Optional#empty()} if it could not be
+     * created
+     */
+    public Optional<Path> createJavaProjectStructure(Path sourcePath, String... packagesName) {
+        return createJavaProjectStructure(ProjectOutput.fileSystem(false), sourcePath,
+            packagesName);
+    }
+
+    /**
+     * Creates the Maven source and resource folders of a module, plus the directories of each
+     * package given by parameter, through a project output. The folders are merged into a
+     * {@link DirectoryPlan} first, so each one is created once.
+     *
+     * @param output       where the folders are created
+     * @param sourcePath   module path
+     * @param packagesName packages to create under {@code src/main/java}
+     * @return the {@code src/main/java} path, or {@link Optional#empty()} if it could not be
+     * created
+     */
+    public Optional<Path> createJavaProjectStructure(ProjectOutput output, Path sourcePath,
+        String... packagesName) {
         try {
-            var created
-                = Files.createDirectories(sourcePath.resolve("src").resolve("main").resolve("java"));
-            Files.createDirectories(sourcePath.resolve("src").resolve("main").resolve("resources"));
-            Files.createDirectories(sourcePath.resolve("src").resolve("test").resolve("java"));
-            Files.createDirectories(sourcePath.resolve("src").resolve("test").resolve("resources"));
+            var plan = new DirectoryPlan(sourcePath)
+                .add("src/main/java")
+                .add("src/main/resources")
+                .add("src/test/java")
+                .add("src/test/resources");
             for (var packageName : packagesName) {
-                var packagesDir = packageName.split("\\.");
-                var packagePath = created;
-                for (var packageDir : packagesDir) {
-                    packagePath = packagePath.resolve(packageDir);
-                }
-                Files.createDirectories(packagePath);
+                plan.add("src/main/java/" + packageName.replace('.', '/'));
             }
+            plan.create(output);
+            var created = sourcePath.resolve("src").resolve("main").resolve("java");
+            return Optional.of(created);
         } catch (IOException ex) {
             log.error(ex.getMessage(), ex);
         }
+        return Optional.empty();
+
+    }
 
+    /**
+     * Reads the coordinates of an existing pom.xml: its parent, groupId, artifactId, version and
+     * packaging. The file is streamed, and the reading stops as soon as the four elements of the
+     * project itself have been read, or at the first section that follows the coordinates in the
+     * Maven POM order, such as {@code modules} or {@code dependencies}. A reactor with thousands
+     * of modules costs the same as a small one, even if it inherits its groupId or leaves its
+     * packaging implicit; coordinates declared after those sections are not seen.
+     *
+     * @param pomPath pom.xml path
+     * @return model with only the parent and the coordinates, the ones not declared being
+     * {@code null}
+     * @throws IOException if the file could not be read or is not valid XML
+     */
+    public PomModel readCoordinates(Path pomPath) throws IOException {
+        var parent = new HashMap<String, String>();
+        var coordinates = new HashMap<String, String>();
+        try (var is = Files.newInputStream(pomPath)) {
+            var xml = PomPatcher.newXmlStreamReader(is);
+            try {
+                var depth = 0;
+                var inParent = false;
+                while (xml.hasNext() && coordinates.size() < COORDINATES_ELEMENTS.size()) {
+                    var event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        var name = xml.getLocalName();
+                        if (depth == 2 && COORDINATES_ELEMENTS.contains(name)
+                            || depth == 3 && inParent) {
+                            // getElementText also consumes the end of the element
+                            (inParent ? parent : coordinates).put(name, xml.getElementText()
+                                .trim());
+                            depth--;
+                        } else if (depth == 2 && name.equals(PARENT)) {
+                            inParent = true;
+                        } else if (depth == 2 && BODY_ELEMENTS.contains(name)) {
+                            break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        inParent &= depth != 2;
+                        depth--;
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("%s: %s".formatted(pomPath, e.getMessage()), e);
+        }
+        return PomModel.builder()
+            .parent(parent.isEmpty() ? null : parent)
+            .groupId(coordinates.get(GROUP_ID))
+            .artifactId(coordinates.get(ARTIFACT_ID))
+            .version(coordinates.get(VERSION))
+            .packaging(coordinates.get(PACKAGING))
+            .build();
     }
 
     private static class PomUtilHolder {
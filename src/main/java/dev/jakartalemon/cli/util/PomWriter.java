@@ -0,0 +1,399 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import static dev.jakartalemon.cli.util.Constants.ARTIFACT_ID;
+import static dev.jakartalemon.cli.util.Constants.GROUP_ID;
+import static dev.jakartalemon.cli.util.Constants.VERSION;
+
+import dev.jakartalemon.cli.model.Coordinates;
+import dev.jakartalemon.cli.model.MavenPom;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes a {@link MavenPom} in a single pass, without DOM or transformer. The output is the
+ * same, byte by byte, as the indented document written by
+ * {@link DocumentXmlUtil#renderDocument(org.w3c.dom.Document, java.util.Map)}: fixed tags are
+ * encoded to UTF-8 once, texts are escaped and encoded while they are copied into a buffer that
+ * each thread reuses.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class PomWriter {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final byte[] NEW_LINE = ascii(LINE_SEPARATOR);
+    private static final byte[] INDENT = ascii("    ");
+    private static final byte[] HEADER = ascii(
+        "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" + LINE_SEPARATOR
+        + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\""
+        + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+        + " xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0"
+        + " http://maven.apache.org/xsd/maven-4.0.0.xsd\">" + LINE_SEPARATOR);
+    private static final byte[] FOOTER = ascii("</project>" + LINE_SEPARATOR);
+
+    private static final Tag MODEL_VERSION = new Tag("modelVersion");
+    private static final Tag GROUP_ID_TAG = new Tag(GROUP_ID);
+    private static final Tag ARTIFACT_ID_TAG = new Tag(ARTIFACT_ID);
+    private static final Tag VERSION_TAG = new Tag(VERSION);
+    private static final Tag PARENT = new Tag("parent");
+    private static final Tag RELATIVE_PATH = new Tag("relativePath");
+    private static final Tag PACKAGING = new Tag("packaging");
+    private static final Tag MODULES = new Tag("modules");
+    private static final Tag MODULE = new Tag("module");
+    private static final Tag DEPENDENCIES = new Tag("dependencies");
+    private static final Tag DEPENDENCY = new Tag("dependency");
+    private static final Tag TYPE = new Tag("type");
+    private static final Tag CLASSIFIER = new Tag("classifier");
+    private static final Tag SCOPE = new Tag("scope");
+    private static final Tag SYSTEM_PATH = new Tag("systemPath");
+    private static final Tag OPTIONAL = new Tag("optional");
+    private static final Tag PROPERTIES = new Tag("properties");
+
+    private static final int MAX_PROPERTY_TAGS = 1024;
+    private static final Map<String, Tag> PROPERTY_TAGS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<PomWriter> WRITERS = ThreadLocal.withInitial(PomWriter::new);
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    private PomWriter() {
+    }
+
+    /**
+     * Renders a typed pom.xml.
+     *
+     * @param pom typed pom.xml
+     * @return pom.xml content
+     * @throws IllegalArgumentException if a property name is not a valid element name
+     */
+    public static byte[] render(MavenPom pom) {
+        var encoded = encode(pom);
+        var content = new byte[encoded.remaining()];
+        encoded.get(content);
+        return content;
+    }
+
+    /**
+     * Writes a typed pom.xml to a channel, straight from the buffer of the current thread.
+     *
+     * @param pom     typed pom.xml
+     * @param channel target channel, usually a {@link java.nio.channels.FileChannel}
+     * @return number of bytes written
+     * @throws IOException              if the channel could not be written
+     * @throws IllegalArgumentException if a property name is not a valid element name
+     */
+    public static int write(MavenPom pom, WritableByteChannel channel) throws IOException {
+        var encoded = encode(pom);
+        var length = encoded.remaining();
+        while (encoded.hasRemaining()) {
+            channel.write(encoded);
+        }
+        return length;
+    }
+
+    /**
+     * Encodes a typed pom.xml into the buffer of the current thread. The returned buffer is a
+     * read-only view that is only valid until the next call from the same thread.
+     *
+     * @param pom typed pom.xml
+     * @return encoded pom.xml, ready to be read
+     * @throws IllegalArgumentException if a property name is not a valid element name
+     */
+    public static ByteBuffer encode(MavenPom pom) {
+        return WRITERS.get().serialize(pom);
+    }
+
+    private ByteBuffer serialize(MavenPom pom) {
+        buffer.clear();
+        put(HEADER);
+        text(1, MODEL_VERSION, pom.modelVersion());
+        text(1, GROUP_ID_TAG, pom.groupId());
+        if (pom.parent() != null) {
+            open(1, PARENT);
+            coordinates(2, pom.parent());
+            text(2, RELATIVE_PATH, pom.parentRelativePath());
+            close(1, PARENT);
+        }
+        text(1, VERSION_TAG, pom.version());
+        element(1, ARTIFACT_ID_TAG, pom.artifactId());
+        element(1, PACKAGING, pom.packaging());
+        if (pom.modules() != null) {
+            if (pom.modules().isEmpty()) {
+                empty(1, MODULES);
+            } else {
+                open(1, MODULES);
+                pom.modules().forEach(module -> text(2, MODULE, module));
+                close(1, MODULES);
+            }
+        }
+        if (pom.dependencies() != null) {
+            if (pom.dependencies().isEmpty()) {
+                empty(1, DEPENDENCIES);
+            } else {
+                open(1, DEPENDENCIES);
+                for (var dependency : pom.dependencies()) {
+                    open(2, DEPENDENCY);
+                    coordinates(3, dependency.coordinates());
+                    text(3, TYPE, dependency.type());
+                    text(3, CLASSIFIER, dependency.classifier());
+                    text(3, SCOPE, dependency.scope());
+                    text(3, SYSTEM_PATH, dependency.systemPath());
+                    text(3, OPTIONAL, dependency.optional());
+                    close(2, DEPENDENCY);
+                }
+                close(1, DEPENDENCIES);
+            }
+        }
+        if (pom.properties() != null) {
+            if (pom.properties().isEmpty()) {
+                empty(1, PROPERTIES);
+            } else {
+                open(1, PROPERTIES);
+                pom.properties().forEach((name, value) -> text(2, propertyTag(name), value));
+                close(1, PROPERTIES);
+            }
+        }
+        put(FOOTER);
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the encoded tag of a property. Property names repeat across the modules of a
+     * project, so they are kept, up to a limit.
+     */
+    private static Tag propertyTag(String name) {
+        var tag = PROPERTY_TAGS.get(name);
+        if (tag == null) {
+            tag = new Tag(name);
+            if (PROPERTY_TAGS.size() < MAX_PROPERTY_TAGS) {
+                PROPERTY_TAGS.putIfAbsent(name, tag);
+            }
+        }
+        return tag;
+    }
+
+    private void coordinates(int depth, Coordinates coordinates) {
+        text(depth, GROUP_ID_TAG, coordinates.groupId());
+        text(depth, ARTIFACT_ID_TAG, coordinates.artifactId());
+        text(depth, VERSION_TAG, coordinates.version());
+    }
+
+    /**
+     * Writes an element with a text, unless the text is {@code null}.
+     */
+    private void text(int depth, Tag tag, String text) {
+        if (text != null) {
+            element(depth, tag, text);
+        }
+    }
+
+    /**
+     * Writes an element that is always present: a {@code null} or empty text gives an empty
+     * element, as the DOM did.
+     */
+    private void element(int depth, Tag tag, String text) {
+        if (text == null || text.isEmpty()) {
+            empty(depth, tag);
+            return;
+        }
+        indent(depth);
+        put(tag.open);
+        escape(text);
+        put(tag.close);
+        put(NEW_LINE);
+    }
+
+    private void open(int depth, Tag tag) {
+        indent(depth);
+        put(tag.open);
+        put(NEW_LINE);
+    }
+
+    private void close(int depth, Tag tag) {
+        indent(depth);
+        put(tag.close);
+        put(NEW_LINE);
+    }
+
+    private void empty(int depth, Tag tag) {
+        indent(depth);
+        put(tag.empty);
+        put(NEW_LINE);
+    }
+
+    private void indent(int depth) {
+        for (var i = 0; i < depth; i++) {
+            put(INDENT);
+        }
+    }
+
+    /**
+     * Escapes and encodes a text as the JDK serializer does: markup characters become entities;
+     * control characters, carriage returns and characters outside the basic multilingual plane
+     * become character references; line feeds become the platform line separator.
+     */
+    private void escape(String text) {
+        var length = text.length();
+        for (var i = 0; i < length; i++) {
+            var c = text.charAt(i);
+            if (c >= 0x20 && c < 0x7F && c != '&' && c != '<' && c != '>') {
+                ensure(1);
+                buffer.put((byte) c);
+            } else if (c == '&') {
+                put(Entity.AMP);
+            } else if (c == '<') {
+                put(Entity.LT);
+            } else if (c == '>') {
+                put(Entity.GT);
+            } else if (c == '\n') {
+                put(NEW_LINE);
+            } else if (c == '\t') {
+                ensure(1);
+                buffer.put((byte) c);
+            } else if (c < 0x20 || (c >= 0x7F && c <= 0x9F)) {
+                reference(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+                reference(Character.toCodePoint(c, text.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException("unpaired surrogate in " + text);
+            } else {
+                utf8(c);
+            }
+        }
+    }
+
+    /**
+     * Encodes a character of the basic multilingual plane that is not ASCII.
+     */
+    private void utf8(char c) {
+        ensure(3);
+        if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6));
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12));
+            buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+        }
+        buffer.put((byte) (0x80 | c & 0x3F));
+    }
+
+    private void reference(int codePoint) {
+        put(ascii("&#" + codePoint + ";"));
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Doubles the buffer until it has room for the given bytes. The larger buffer is kept for the
+     * next documents of the thread.
+     */
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            var capacity = buffer.capacity();
+            while (capacity - buffer.position() < bytes) {
+                capacity *= 2;
+            }
+            buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Opening, closing and empty forms of an element, already encoded.
+     */
+    private static class Tag {
+
+        private final byte[] open;
+        private final byte[] close;
+        private final byte[] empty;
+
+        Tag(String name) {
+            if (!isName(name)) {
+                throw new IllegalArgumentException("invalid element name " + name);
+            }
+            var encoded = name.getBytes(StandardCharsets.UTF_8);
+            open = tag("<", encoded, ">");
+            close = tag("</", encoded, ">");
+            empty = tag("<", encoded, "/>");
+        }
+
+        private static byte[] tag(String prefix, byte[] name, String suffix) {
+            var tag = Arrays.copyOf(ascii(prefix), prefix.length() + name.length
+                + suffix.length());
+            System.arraycopy(name, 0, tag, prefix.length(), name.length);
+            System.arraycopy(ascii(suffix), 0, tag, prefix.length() + name.length,
+                suffix.length());
+            return tag;
+        }
+
+        /**
+         * Checks the XML 1.0 name rules, the same ones the DOM applied when the element was
+         * created.
+         */
+        private static boolean isName(String name) {
+            if (name == null || name.isEmpty()) {
+                return false;
+            }
+            var first = name.codePointAt(0);
+            if (!isNameStart(first)) {
+                return false;
+            }
+            return name.codePoints().skip(1).allMatch(codePoint -> isNameStart(codePoint)
+                || codePoint == '-' || codePoint == '.' || (codePoint >= '0' && codePoint <= '9')
+                || codePoint == 0xB7 || (codePoint >= 0x300 && codePoint <= 0x36F)
+                || (codePoint >= 0x203F && codePoint <= 0x2040));
+        }
+
+        private static boolean isNameStart(int codePoint) {
+            return codePoint == ':' || codePoint == '_'
+                || (codePoint >= 'A' && codePoint <= 'Z') || (codePoint >= 'a' && codePoint <= 'z')
+                || (codePoint >= 0xC0 && codePoint <= 0xD6) || (codePoint >= 0xD8
+                && codePoint <= 0xF6) || (codePoint >= 0xF8 && codePoint <= 0x2FF)
+                || (codePoint >= 0x370 && codePoint <= 0x37D) || (codePoint >= 0x37F
+                && codePoint <= 0x1FFF) || (codePoint >= 0x200C && codePoint <= 0x200D)
+                || (codePoint >= 0x2070 && codePoint <= 0x218F) || (codePoint >= 0x2C00
+                && codePoint <= 0x2FEF) || (codePoint >= 0x3001 && codePoint <= 0xD7FF)
+                || (codePoint >= 0xF900 && codePoint <= 0xFDCF) || (codePoint >= 0xFDF0
+                && codePoint <= 0xFFFD) || (codePoint >= 0x10000 && codePoint <= 0xEFFFF);
+        }
+    }
+
+    /**
+     * Entities of the markup characters.
+     */
+    private static class Entity {
+
+        static final byte[] AMP = ascii("&amp;");
+        static final byte[] LT = ascii("&lt;");
+        static final byte[] GT = ascii("&gt;");
+
+        private Entity() {
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.util;
+
+import jakarta.json.bind.JsonbBuilder;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the phases of a command, per module. It
+ * is off unless {@link #start(long)} was called: {@link #phase(String)} and
+ * {@link #module(String)} then only read a volatile field and return a shared no-op phase, so the
+ * instrumented code costs nothing.
+ * <p>
+ * Phases nest: times of a phase include the phases run inside it. The module of a phase is the one
+ * opened by the closest enclosing {@link #module(String)} on the same thread. When the daemon runs
+ * several profiled commands at the same time, they are all recorded in the first profile.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class Profiler {
+
+    /**
+     * Format of the report.
+     */
+    public enum Format {
+        TABLE, JSON
+    }
+
+    private static final String NO_MODULE = "-";
+    private static final Phase NO_OP = new NoOpPhase();
+    private static final ThreadLocal<String> CURRENT_MODULE = new ThreadLocal<>();
+    private static volatile Profiler active;
+
+    private final Map<PhaseKey, Totals> totals = new ConcurrentHashMap<>();
+    private final Meters meters = new Meters();
+
+    private Profiler() {
+    }
+
+    /**
+     * Starts profiling, unless a profile is already being recorded.
+     *
+     * @param startedMillis time at which the process entered {@code main}, to record the JVM
+     *                      startup; {@code 0} if the command does not run in a new process
+     * @return the profile being recorded
+     */
+    public static synchronized Profiler start(long startedMillis) {
+        if (active == null) {
+            var profiler = new Profiler();
+            if (startedMillis > 0) {
+                profiler.totals.put(new PhaseKey(NO_MODULE, "jvm.startup"), profiler.meters
+                    .startup(startedMillis));
+            }
+            active = profiler;
+        }
+        return active;
+    }
+
+    /**
+     * Opens a phase in the current module.
+     *
+     * @param name phase name
+     * @return the phase, to be closed when it ends
+     */
+    public static Phase phase(String name) {
+        var profiler = active;
+        if (profiler == null) {
+            return NO_OP;
+        }
+        var module = CURRENT_MODULE.get();
+        return profiler.begin(module == null ? NO_MODULE : module, name, null);
+    }
+
+    /**
+     * Opens the phase {@code module} of a module. Phases opened by the same thread until it is
+     * closed belong to that module.
+     *
+     * @param module module name
+     * @return the phase, to be closed when the module ends
+     */
+    public static Phase module(String module) {
+        var profiler = active;
+        if (profiler == null) {
+            return NO_OP;
+        }
+        var previous = CURRENT_MODULE.get();
+        CURRENT_MODULE.set(module);
+        return profiler.begin(module, "module", previous == null ? NO_MODULE : previous);
+    }
+
+    /**
+     * Stops profiling, if this is the profile being recorded.
+     */
+    public void stop() {
+        synchronized (Profiler.class) {
+            if (active == this) {
+                active = null;
+            }
+        }
+    }
+
+    /**
+     * Recorded phases, sorted by module and phase name.
+     *
+     * @return recorded phases
+     */
+    public List<PhaseTotals> getPhases() {
+        return totals.entrySet().stream()
+            .map(entry -> entry.getValue().snapshot(entry.getKey()))
+            .sorted(Comparator.comparing(PhaseTotals::module)
+                .thenComparing(PhaseTotals::phase))
+            .toList();
+    }
+
+    /**
+     * Writes the report.
+     *
+     * @param format report format
+     * @param writer where the report is written
+     */
+    public void report(Format format, PrintWriter writer) {
+        var phases = getPhases();
+        if (format == Format.JSON) {
+            try (var jsonb = JsonbBuilder.create()) {
+                writer.println(jsonb.toJson(Map.of("phases", phases)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            var moduleWidth = Math.max(6, phases.stream().mapToInt(phase -> phase.module()
+                .length()).max().orElse(0));
+            var phaseWidth = Math.max(5, phases.stream().mapToInt(phase -> phase.phase().length())
+                .max().orElse(0));
+            var row = "%-" + moduleWidth + "s  %-" + phaseWidth + "s  %7s  %10s  %10s  %12s%n";
+            writer.printf(row, "MODULE", "PHASE", "CALLS", "WALL ms", "CPU ms", "ALLOC KiB");
+            phases.forEach(phase -> writer.printf(row, phase.module(), phase.phase(), phase.
+                calls(), millis(phase.wallNanos()), millis(phase.cpuNanos()), phase.
+                allocatedBytes() < 0 ? "n/a" : String.valueOf(phase.allocatedBytes() / 1024)));
+        }
+        writer.flush();
+    }
+
+    private static String millis(long nanos) {
+        return nanos < 0 ? "n/a" : "%.3f".formatted(nanos / 1_000_000.0);
+    }
+
+    private Phase begin(String module, String name, String restoredModule) {
+        var phaseTotals = totals(module, name);
+        var wall = System.nanoTime();
+        var cpu = meters.cpuNanos();
+        var allocated = meters.allocatedBytes();
+        return () -> {
+            phaseTotals.add(System.nanoTime() - wall, meters.cpuNanos() - cpu, meters.
+                allocatedBytes() - allocated);
+            if (restoredModule != null) {
+                CURRENT_MODULE.set(restoredModule.equals(NO_MODULE) ? null : restoredModule);
+            }
+        };
+    }
+
+    private Totals totals(String module, String name) {
+        return totals.computeIfAbsent(new PhaseKey(module, name), key -> new Totals(meters
+            .cpuSupported, meters.allocations != null));
+    }
+
+    /**
+     * A running phase.
+     */
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+
+        /**
+         * Ends the phase.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Totals of a phase.
+     *
+     * @param module         module name, {@code -} outside of any module
+     * @param phase          phase name
+     * @param calls          times the phase ran
+     * @param wallNanos      wall time
+     * @param cpuNanos       CPU time of the threads that ran the phase, {@code -1} if unsupported
+     * @param allocatedBytes bytes allocated by the threads that ran the phase, {@code -1} if
+     *                       unsupported
+     */
+    public record PhaseTotals(String module,
+        String phase,
+        long calls,
+        long wallNanos,
+        long cpuNanos,
+        long allocatedBytes) {
+
+    }
+
+    /**
+     * Phase returned while profiling is off. It is a plain class rather than a lambda, so loading
+     * the profiler does not bootstrap the lambda machinery.
+     */
+    private static final class NoOpPhase implements Phase {
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private record PhaseKey(String module, String phase) {
+
+    }
+
+    private static class Totals {
+
+        private final boolean cpuKnown;
+        private final boolean allocationsKnown;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private Totals(boolean cpuKnown, boolean allocationsKnown) {
+            this.cpuKnown = cpuKnown;
+            this.allocationsKnown = allocationsKnown;
+        }
+
+        private void add(long wall, long cpu, long allocated) {
+            calls.increment();
+            wallNanos.add(wall);
+            cpuNanos.add(cpu);
+            allocatedBytes.add(allocated);
+        }
+
+        private PhaseTotals snapshot(PhaseKey key) {
+            return new PhaseTotals(key.module(), key.phase(), calls.sum(), wallNanos.sum(),
+                cpuKnown ? cpuNanos.sum() : -1, allocationsKnown ? allocatedBytes.sum() : -1);
+        }
+    }
+
+    /**
+     * Reads the per-thread counters of the JVM. The management classes are only loaded when a
+     * profile is started.
+     */
+    private static class Meters {
+
+        private final java.lang.management.ThreadMXBean threads = ManagementFactory
+            .getThreadMXBean();
+        private final com.sun.management.ThreadMXBean allocations;
+        private final boolean cpuSupported;
+
+        private Meters() {
+            cpuSupported = threads.isCurrentThreadCpuTimeSupported();
+            if (cpuSupported && !threads.isThreadCpuTimeEnabled()) {
+                threads.setThreadCpuTimeEnabled(true);
+            }
+            if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemorySupported()) {
+                sunThreads.setThreadAllocatedMemoryEnabled(true);
+                allocations = sunThreads;
+            } else {
+                allocations = null;
+            }
+        }
+
+        private long cpuNanos() {
+            return cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+        }
+
+        private long allocatedBytes() {
+            return allocations != null ? allocations.getCurrentThreadAllocatedBytes() : 0;
+        }
+
+        /**
+         * The JVM startup is the time between the start of the JVM and the entry in {@code main}.
+         * Its CPU time is the one of the whole process until now, its allocations are unknown.
+         */
+        private Totals startup(long startedMillis) {
+            var startupMillis = startedMillis - ManagementFactory.getRuntimeMXBean()
+                .getStartTime();
+            var os = ManagementFactory.getOperatingSystemMXBean();
+            var processCpu = os instanceof com.sun.management.OperatingSystemMXBean sunOs
+                ? sunOs.getProcessCpuTime() : -1;
+            var startup = new Totals(processCpu >= 0, false);
+            startup.add(startupMillis * 1_000_000, Math.max(processCpu, 0), 0);
+            return startup;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.output.ProjectOutput;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filesystem output that counts the calls made to create folders, independently of what the
+ * generator reports, so the folder budget of a scaffold can be checked against the real calls.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class CountingOutput implements ProjectOutput {
+
+    private final ProjectOutput output = ProjectOutput.fileSystem(false);
+    private final AtomicInteger directoryCalls = new AtomicInteger();
+
+    @Override
+    public void createDirectories(Path directory) throws IOException {
+        directoryCalls.incrementAndGet();
+        output.createDirectories(directory);
+    }
+
+    @Override
+    public void createDirectory(Path directory) throws IOException {
+        directoryCalls.incrementAndGet();
+        output.createDirectory(directory);
+    }
+
+    @Override
+    public boolean write(Path file, byte[] content) throws IOException {
+        return output.write(file, content);
+    }
+
+    /**
+     * @return calls made so far to create folders
+     */
+    int getDirectoryCalls() {
+        return directoryCalls.get();
+    }
+}
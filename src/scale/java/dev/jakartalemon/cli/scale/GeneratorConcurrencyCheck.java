@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.api.ProjectGenerator;
+import dev.jakartalemon.cli.api.ProjectOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates projects into distinct folders from many threads at the same time through
+ * {@link ProjectGenerator}, and asserts that every tree is identical, folders and file contents,
+ * to the one generated by a single thread with the same options. Each thread uses its own
+ * coordinates, so any value leaking from a concurrent call shows up as a difference.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class GeneratorConcurrencyCheck {
+
+    private static final int THREADS = 8;
+    private static final int PROJECTS = 4;
+    private static final int MAX_REPORTED = 10;
+
+    private GeneratorConcurrencyCheck() {
+    }
+
+    /**
+     * @param workingFolder folder of the generated projects
+     * @return failed assertions, empty if every tree matches the single-thread one
+     * @throws IOException if a project could not be generated or read
+     */
+    static List<String> run(Path workingFolder) throws IOException {
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Map<String, byte[]>> expected = new ArrayList<>();
+        for (var thread = 0; thread < THREADS; thread++) {
+            expected.add(tree(generate(workingFolder.resolve("reference-" + thread), thread,
+                failures)));
+        }
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (var thread = 0; thread < THREADS; thread++) {
+                var threadFolder = workingFolder.resolve("thread-" + thread);
+                var coordinates = thread;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var project = 0; project < PROJECTS; project++) {
+                        var projectPath = generate(threadFolder.resolve("project-" + project),
+                            coordinates, failures);
+                        var differences = compare(expected.get(coordinates), tree(projectPath));
+                        if (!differences.isEmpty()) {
+                            failures.add("%s differs: %s".formatted(projectPath, differences));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.add("interrupted");
+        } catch (ExecutionException e) {
+            failures.add("a thread failed: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return failures.stream()
+            .limit(MAX_REPORTED)
+            .map(failure -> "Generator concurrency: " + failure)
+            .toList();
+    }
+
+    private static Path generate(Path projectPath, int coordinates, List<String> failures)
+        throws IOException {
+        var result = ProjectGenerator.getInstance().generate(ProjectOptions.builder()
+            .projectPath(projectPath)
+            .groupId("com.example.concurrent" + coordinates)
+            .artifactId("shop" + coordinates)
+            .build());
+        if (!result.isSuccessful()) {
+            failures.add("%s failed: %s".formatted(projectPath, result.errors()));
+        }
+        return projectPath;
+    }
+
+    /**
+     * Contents of a tree by relative path; folders have no content.
+     */
+    private static Map<String, byte[]> tree(Path root) throws IOException {
+        Map<String, byte[]> tree = new TreeMap<>();
+        try (var paths = Files.walk(root)) {
+            for (var path : paths.toList()) {
+                var relative = root.relativize(path).toString().replace(path.getFileSystem()
+                    .getSeparator(), "/");
+                tree.put(relative, Files.isDirectory(path) ? new byte[0] : Files.readAllBytes(
+                    path));
+            }
+        }
+        return tree;
+    }
+
+    private static List<String> compare(Map<String, byte[]> expected,
+        Map<String, byte[]> actual) {
+        List<String> differences = new ArrayList<>();
+        expected.forEach((path, content) -> {
+            if (!actual.containsKey(path)) {
+                differences.add("missing " + path);
+            } else if (!Arrays.equals(content, actual.get(path))) {
+                differences.add("content of " + path);
+            }
+        });
+        actual.keySet().stream()
+            .filter(path -> !expected.containsKey(path))
+            .forEach(path -> differences.add("unexpected " + path));
+        return differences;
+    }
+}
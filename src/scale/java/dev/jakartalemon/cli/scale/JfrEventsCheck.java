@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.api.GenerationResult;
+import dev.jakartalemon.cli.api.ProjectGenerator;
+import dev.jakartalemon.cli.api.ProjectOptions;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Records a generation with JDK Flight Recorder and reads the events back: every event type of
+ * the {@code jfr} package must be emitted with its fields filled, and a disabled event type must
+ * not be committed at all.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class JfrEventsCheck {
+
+    private static final String MODULE_GENERATION = "dev.jakartalemon.ModuleGeneration";
+    private static final String POM_RENDER = "dev.jakartalemon.PomRender";
+    private static final String DIRECTORY_CREATION = "dev.jakartalemon.DirectoryCreation";
+    private static final String DOCUMENT_PARSE = "dev.jakartalemon.DocumentParse";
+    private static final String DOCUMENT_SAVE = "dev.jakartalemon.DocumentSave";
+    private static final List<String> EVENTS = List.of(MODULE_GENERATION, POM_RENDER,
+        DIRECTORY_CREATION, DOCUMENT_PARSE, DOCUMENT_SAVE);
+
+    private JfrEventsCheck() {
+    }
+
+    /**
+     * @param workingFolder folder of the recorded projects and recordings
+     * @return failed assertions, empty if the events are fine
+     * @throws IOException if a project or a recording could not be written
+     */
+    static List<String> run(Path workingFolder) throws IOException {
+        List<String> failures = new ArrayList<>();
+        var enabled = record(workingFolder.resolve("enabled"), Set.of());
+        var result = enabled.result();
+        var poms = result.poms().stream().map(Path::toString).collect(Collectors.toSet());
+        var moduleEvents = enabled.events(MODULE_GENERATION);
+        expect(failures, moduleEvents.size() == poms.size(),
+            "%d ModuleGeneration events for %d modules", moduleEvents.size(), poms.size());
+        for (var event : moduleEvents) {
+            var path = event.getString("path");
+            expect(failures, poms.contains(path), "ModuleGeneration of unknown pom.xml %s", path);
+            expect(failures, event.getString("module") != null, "ModuleGeneration of %s has no "
+                + "module", path);
+            expect(failures, path == null || event.getLong("bytes") == Files.size(Path.of(path)),
+                "ModuleGeneration of %s has %d bytes", path, event.getLong("bytes"));
+        }
+        var renderEvents = enabled.events(POM_RENDER);
+        expect(failures, renderEvents.size() >= poms.size(),
+            "%d PomRender events for %d modules", renderEvents.size(), poms.size());
+        renderEvents.forEach(event -> expect(failures, event.getString("module") != null
+            && event.getLong("bytes") > 0, "PomRender without payload: %s", event));
+        var directoryEvents = enabled.events(DIRECTORY_CREATION);
+        expect(failures, directoryEvents.size() == 1,
+            "%d DirectoryCreation events, expected one plan for the whole project",
+            directoryEvents.size());
+        directoryEvents.forEach(event -> expect(failures, event.getString("path") != null
+            && event.getInt("calls") == event.getInt("directories") + 1,
+            "DirectoryCreation with inconsistent calls: %s", event));
+        var pomPath = result.projectPath().resolve("pom.xml");
+        expectDocument(failures, enabled.events(DOCUMENT_PARSE), DOCUMENT_PARSE, pomPath);
+        expectDocument(failures, enabled.events(DOCUMENT_SAVE), DOCUMENT_SAVE, pomPath);
+
+        var gated = record(workingFolder.resolve("gated"), Set.of(POM_RENDER));
+        expect(failures, gated.events(POM_RENDER).isEmpty(),
+            "%d PomRender events committed while disabled", gated.events(POM_RENDER).size());
+        expect(failures, gated.events(MODULE_GENERATION).size() == gated.result().poms().size(),
+            "ModuleGeneration events lost while PomRender is disabled");
+        return failures;
+    }
+
+    /**
+     * Generates a project, and then parses and saves its root pom.xml, while recording.
+     *
+     * @param folder   folder of the project and the recording
+     * @param disabled event types disabled in the recording
+     */
+    private static Recorded record(Path folder, Set<String> disabled) throws IOException {
+        var recordingPath = folder.resolve("generation.jfr");
+        GenerationResult result;
+        try (var recording = new Recording()) {
+            EVENTS.forEach(name -> {
+                if (disabled.contains(name)) {
+                    recording.disable(name);
+                } else {
+                    recording.enable(name).withThreshold(Duration.ZERO);
+                }
+            });
+            recording.start();
+            result = ProjectGenerator.getInstance().generate(ProjectOptions.builder()
+                .projectPath(folder.resolve("demo"))
+                .groupId("com.example.jfr")
+                .artifactId("demo")
+                .build());
+            var pomPath = result.projectPath().resolve("pom.xml");
+            var document = DocumentXmlUtil.openDocument(pomPath).orElseThrow(
+                () -> new IOException("could not parse " + pomPath));
+            DocumentXmlUtil.saveDocument(pomPath, document, ProjectOutput.fileSystem(false));
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+        return new Recorded(result, RecordingFile.readAllEvents(recordingPath));
+    }
+
+    private static void expectDocument(List<String> failures, List<RecordedEvent> events,
+        String name, Path path) throws IOException {
+        expect(failures, events.size() == 1, "%d %s events, expected 1", events.size(), name);
+        for (var event : events) {
+            expect(failures, Objects.equals(event.getString("path"), path.toString())
+                && event.getLong("bytes") == Files.size(path), "%s with wrong payload: %s", name,
+                event);
+        }
+    }
+
+    private static void expect(List<String> failures, boolean condition, String format,
+        Object... args) {
+        if (!condition) {
+            failures.add("JFR: " + format.formatted(args));
+        }
+    }
+
+    private record Recorded(GenerationResult result, List<RecordedEvent> allEvents) {
+
+        List<RecordedEvent> events(String name) {
+            return allEvents.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        }
+    }
+}
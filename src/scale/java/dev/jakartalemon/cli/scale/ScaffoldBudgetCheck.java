@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.api.ProjectGenerator;
+import dev.jakartalemon.cli.api.ProjectOptions;
+import dev.jakartalemon.cli.project.constants.Archetype;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Generates the scaffold of each archetype with a budget, with the {@code com.example.demo}
+ * package, through a {@link CountingOutput}. The folder calls counted by the output, the project
+ * folder included, are checked against the {@code scaffold.<archetype>.maxDirectoryCalls} budget,
+ * and the calls reported in the result against the counted ones. A regression in the
+ * de-duplication of the folders fails the build.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class ScaffoldBudgetCheck {
+
+    private ScaffoldBudgetCheck() {
+    }
+
+    /**
+     * @param budgets       committed budgets
+     * @param workingFolder folder of the generated projects
+     * @return exceeded budgets and wrong counts
+     * @throws IOException if a project could not be generated
+     */
+    static List<String> run(Properties budgets, Path workingFolder) throws IOException {
+        List<String> failures = new ArrayList<>();
+        for (var archetype : Archetype.values()) {
+            var name = "scaffold.%s.maxDirectoryCalls".formatted(archetype);
+            var budget = ScaleCheck.budget(budgets, name);
+            if (budget < 0) {
+                continue;
+            }
+            var output = new CountingOutput();
+            var result = ProjectGenerator.getInstance().generate(ProjectOptions.builder()
+                .projectPath(workingFolder.resolve(archetype.name().toLowerCase()))
+                .archetype(archetype)
+                .groupId("com.example")
+                .artifactId("demo")
+                .build(), output);
+            var calls = output.getDirectoryCalls();
+            System.out.printf("%-24s %d folder calls, budget %d%n", "scaffold." + archetype, calls,
+                budget);
+            if (!result.isSuccessful()) {
+                failures.add("%s: %s".formatted(name, result.errors()));
+            }
+            // the generator creates the project folder itself before the plan of its modules
+            if (result.directoryCalls() + 1 != calls) {
+                failures.add("%s: %d folder calls reported, %d made".formatted(name, result
+                    .directoryCalls(), calls - 1));
+            }
+            if (calls > budget) {
+                failures.add("%s: %d folder calls, budget %d".formatted(name, calls, budget));
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.model.PomModel;
+import dev.jakartalemon.cli.output.ProjectOutput;
+import dev.jakartalemon.cli.util.PomUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+/**
+ * Generates synthetic reactors of growing size with
+ * {@link PomUtil#createPom(Path, PomModel, ProjectOutput)} and
+ * {@link PomUtil#createJavaProjectStructure(ProjectOutput, Path, String...)}, and checks each run
+ * against the committed budgets: wall time, peak heap, files written per second and calls made to
+ * create folders. Every module has a
+ * deep package tree, so the directory creation weighs as much as the pom.xml rendering.
+ * <p>
+ * Before the reactors, it runs the correctness checks that need a whole generation, such as the
+ * {@link JfrEventsCheck Flight Recorder events}, the
+ * {@link XmlConcurrencyCheck thread-local XML engines} and the
+ * {@link GeneratorConcurrencyCheck thread-safe generator API}, and then the
+ * {@link ScaffoldBudgetCheck folder calls of each scaffold} and the
+ * {@link StartupCheck startup time} of whole processes. The reactors count their folder calls
+ * too, through a {@link CountingOutput}.
+ * <p>
+ * Run with {@code mvn -Pscale verify}. The process exits with {@code 1}, failing the build, if a
+ * check fails or a budget is exceeded.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+public final class ScaleCheck {
+
+    private static final String GROUP_ID = "com.example.scale";
+    private static final String VERSION = "1.0-SNAPSHOT";
+    private static final int PACKAGE_DEPTH = 8;
+
+    private ScaleCheck() {
+    }
+
+    /**
+     * @param args budgets file, working folder and comma-separated reactor sizes
+     * @throws IOException if a reactor could not be generated
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ScaleCheck <budgets.properties> <working folder> <sizes>");
+            System.exit(2);
+        }
+        var budgets = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            budgets.load(reader);
+        }
+        var workingFolder = Path.of(args[1]);
+        var sizes = Arrays.stream(args[2].split(",")).map(String::trim).mapToInt(
+            Integer::parseInt).toArray();
+        delete(workingFolder);
+        List<String> failures = new ArrayList<>();
+        failures.addAll(report("JFR events", JfrEventsCheck.run(workingFolder.resolve("jfr"))));
+        failures.addAll(report("XML concurrency", XmlConcurrencyCheck.run(workingFolder.resolve(
+            "xml"))));
+        failures.addAll(report("Generator concurrency", GeneratorConcurrencyCheck.run(
+            workingFolder.resolve("generator"))));
+        failures.addAll(ScaffoldBudgetCheck.run(budgets, workingFolder.resolve("scaffold")));
+        failures.addAll(StartupCheck.run(budgets, workingFolder.resolve("startup"), Path.of(System
+            .getProperty("jakartalemon.target", "target"))));
+        System.out.printf("%8s %10s %12s %12s %12s %12s%n", "MODULES", "FILES", "WALL ms",
+            "PEAK MiB", "FILES/s", "DIR CALLS");
+        for (var size : sizes) {
+            var result = run(workingFolder.resolve("reactor-" + size), size);
+            System.out.printf("%8d %10d %12d %12d %12.0f %12d%n", size, result.files(), result
+                .wallMillis(), result.peakHeapMiB(), result.filesPerSecond(), result
+                .directoryCalls());
+            failures.addAll(check(budgets, size, result));
+        }
+        delete(workingFolder);
+        if (!failures.isEmpty()) {
+            System.err.println("Scale check failed:");
+            failures.forEach(message -> System.err.printf("  %s%n", message));
+            System.exit(1);
+        }
+    }
+
+    private static List<String> report(String check, List<String> failures) {
+        System.out.printf("%-24s %s%n", check, failures.isEmpty() ? "ok" : "FAILED");
+        return failures;
+    }
+
+    private static Result run(Path reactorPath, int size) throws IOException {
+        delete(reactorPath);
+        var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        var start = System.nanoTime();
+        var output = new CountingOutput();
+        var modules = IntStream.range(0, size).mapToObj("module-%05d"::formatted).toList();
+        PomUtil.getInstance().createPom(reactorPath, PomModel.builder()
+            .groupId(GROUP_ID)
+            .artifactId("reactor-" + size)
+            .version(VERSION)
+            .packaging("pom")
+            .modules(modules)
+            .properties(Map.of("maven.compiler.release", "17"))
+            .build(), output).orElseThrow(() -> new IOException("root pom.xml not created"));
+        var parent = Map.of("groupId", GROUP_ID, "artifactId", "reactor-" + size, "version",
+            VERSION);
+        for (var index = 0; index < size; index++) {
+            var module = modules.get(index);
+            var modulePath = reactorPath.resolve(module);
+            var dependencies = index == 0 ? List.<Map<String, String>>of() : List.of(Map.of(
+                "groupId", GROUP_ID, "artifactId", modules.get(index - 1), "version", VERSION));
+            PomUtil.getInstance().createPom(modulePath, PomModel.builder()
+                .parent(parent)
+                .artifactId(module)
+                .packaging("jar")
+                .dependencies(dependencies)
+                .build(), output).orElseThrow(() -> new IOException(module
+                + " pom.xml not created"));
+            PomUtil.getInstance().createJavaProjectStructure(output, modulePath, packagesOf(
+                index))
+                .orElseThrow(() -> new IOException(module + " folders not created"));
+        }
+        var wallNanos = System.nanoTime() - start;
+        var peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        long files;
+        try (var paths = Files.walk(reactorPath)) {
+            files = paths.count() - 1;
+        }
+        return new Result(files, wallNanos / 1_000_000, peakHeap / (1024 * 1024),
+            files * 1e9 / wallNanos, output.getDirectoryCalls());
+    }
+
+    /**
+     * Two packages that share most of their path, {@value #PACKAGE_DEPTH} levels below the base
+     * package of the module.
+     */
+    private static String[] packagesOf(int index) {
+        var base = new StringBuilder(GROUP_ID).append(".m").append(index);
+        for (var level = 0; level < PACKAGE_DEPTH - 1; level++) {
+            base.append(".level").append(level);
+        }
+        return new String[]{base + ".domain", base + ".service"};
+    }
+
+    private static List<String> check(Properties budgets, int size, Result result) {
+        List<String> exceeded = new ArrayList<>();
+        var maxWallMillis = budget(budgets, size, "maxWallMillis");
+        if (maxWallMillis >= 0 && result.wallMillis() > maxWallMillis) {
+            exceeded.add("%d modules: %d ms, budget %d ms".formatted(size, result.wallMillis(),
+                maxWallMillis));
+        }
+        var maxPeakHeapMiB = budget(budgets, size, "maxPeakHeapMiB");
+        if (maxPeakHeapMiB >= 0 && result.peakHeapMiB() > maxPeakHeapMiB) {
+            exceeded.add("%d modules: %d MiB of peak heap, budget %d MiB".formatted(size, result
+                .peakHeapMiB(), maxPeakHeapMiB));
+        }
+        var maxDirectoryCalls = budget(budgets, size, "maxDirectoryCalls");
+        if (maxDirectoryCalls >= 0 && result.directoryCalls() > maxDirectoryCalls) {
+            exceeded.add("%d modules: %d folder calls, budget %d".formatted(size, result
+                .directoryCalls(), maxDirectoryCalls));
+        }
+        var minFilesPerSecond = budget(budgets, size, "minFilesPerSecond");
+        if (minFilesPerSecond >= 0 && result.filesPerSecond() < minFilesPerSecond) {
+            exceeded.add("%d modules: %.0f files/s, budget %d files/s".formatted(size, result
+                .filesPerSecond(), minFilesPerSecond));
+        }
+        return exceeded;
+    }
+
+    /**
+     * Budget of a size, {@code -1} if it has none.
+     */
+    private static long budget(Properties budgets, int size, String name) {
+        return budget(budgets, size + "." + name);
+    }
+
+    /**
+     * Budget by its full name, {@code -1} if it has none.
+     */
+    static long budget(Properties budgets, String name) {
+        return Long.parseLong(budgets.getProperty(name, "-1").trim());
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (var paths = Files.walk(path)) {
+                for (var child : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Measurements of one reactor.
+     *
+     * @param files          files and folders written, pom.xml files included
+     * @param wallMillis     generation time
+     * @param peakHeapMiB    sum of the peak usage of the heap pools during the generation
+     * @param filesPerSecond files and folders written per second
+     * @param directoryCalls calls made to the output to create folders
+     */
+    private record Result(long files, long wallMillis, long peakHeapMiB, double filesPerSecond,
+        int directoryCalls) {
+
+    }
+}
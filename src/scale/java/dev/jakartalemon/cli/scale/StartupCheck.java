@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Wall time of whole {@code jakartalemon --version} and {@code jakartalemon createproject}
+ * processes, the median of several runs after a warm-up one, checked against the
+ * {@code startup.*} budgets. The processes run from the classpath of the check. If
+ * {@code mvn -Pcds install} left a class-data-sharing archive and the jar with dependencies in the
+ * target folder, they are also run from them and checked against the {@code startup.cds.*}
+ * budgets.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class StartupCheck {
+
+    private static final String MAIN_CLASS = "dev.jakartalemon.cli.JakartaLemonCli";
+    private static final String JAR = "jakarta-lemon-cli-1.0-SNAPSHOT-jar-with-dependencies.jar";
+    private static final String ARCHIVE = "jakartalemon.jsa";
+    private static final int RUNS = 5;
+
+    private StartupCheck() {
+    }
+
+    /**
+     * @param budgets       committed budgets
+     * @param workingFolder folder of the generated projects
+     * @param targetFolder  build folder, where the CDS archive is looked for
+     * @return exceeded budgets and failed processes
+     * @throws IOException if a process could not be started
+     */
+    static List<String> run(Properties budgets, Path workingFolder, Path targetFolder) throws
+        IOException {
+        List<String> failures = new ArrayList<>();
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        measure(budgets, "startup", List.of(java, "-cp", System.getProperty("java.class.path"),
+            MAIN_CLASS), workingFolder.resolve("classpath"), failures);
+        var jar = targetFolder.resolve(JAR);
+        var archive = targetFolder.resolve(ARCHIVE);
+        if (Files.exists(jar) && Files.exists(archive)) {
+            measure(budgets, "startup.cds", List.of(java, "-XX:SharedArchiveFile=" + archive,
+                "-cp", jar.toString(), MAIN_CLASS), workingFolder.resolve("cds"), failures);
+        } else {
+            System.out.printf("%-24s skipped, no %s in %s%n", "startup.cds", ARCHIVE,
+                targetFolder);
+        }
+        return failures;
+    }
+
+    private static void measure(Properties budgets, String prefix, List<String> launcher,
+        Path workingFolder, List<String> failures) throws IOException {
+        Files.createDirectories(workingFolder);
+        var version = median(launcher, workingFolder, failures, run -> List.of("--version"));
+        var createProject = median(launcher, workingFolder, failures, run -> List.of(
+            "createproject", workingFolder.resolve("project-" + run).toString(), "-a", "HEXA",
+            "-g", "com.example.startup", "-i", "startup"));
+        System.out.printf("%-24s --version %d ms, createproject %d ms%n", prefix, version,
+            createProject);
+        check(budgets, prefix + ".versionMillis", version, failures);
+        check(budgets, prefix + ".createProjectMillis", createProject, failures);
+    }
+
+    /**
+     * Median wall time of {@value #RUNS} processes, after a warm-up one that fills the file
+     * system cache.
+     */
+    private static long median(List<String> launcher, Path workingFolder, List<String> failures,
+        Arguments arguments) throws IOException {
+        var millis = new long[RUNS];
+        for (var run = -1; run < RUNS; run++) {
+            var command = new ArrayList<>(launcher);
+            command.add(1, "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn");
+            command.addAll(arguments.of(run + 1));
+            var start = System.nanoTime();
+            var process = new ProcessBuilder(command)
+                .directory(workingFolder.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            int exitCode;
+            try {
+                exitCode = process.waitFor();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            if (exitCode != 0) {
+                failures.add("Startup: %s exited with %d".formatted(String.join(" ", command
+                    .subList(command.size() - arguments.of(run + 1).size(), command.size())),
+                    exitCode));
+            }
+            if (run >= 0) {
+                millis[run] = (System.nanoTime() - start) / 1_000_000;
+            }
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+    private static void check(Properties budgets, String name, long millis,
+        List<String> failures) {
+        var budget = ScaleCheck.budget(budgets, name);
+        if (budget >= 0 && millis > budget) {
+            failures.add("%s: %d ms, budget %d ms".formatted(name, millis, budget));
+        }
+    }
+
+    /**
+     * Arguments of the run with the given number, so each createproject gets its own folder.
+     */
+    @FunctionalInterface
+    private interface Arguments {
+
+        List<String> of(int run);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Diego Silva <diego.silva at apuntesdejava.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.jakartalemon.cli.scale;
+
+import dev.jakartalemon.cli.util.DocumentXmlUtil;
+import dev.jakartalemon.cli.util.DocumentXmlUtil.ElementBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.w3c.dom.Document;
+
+/**
+ * Parses, queries, builds and renders documents from many threads at the same time, with the
+ * per-thread engines of {@link DocumentXmlUtil}, and asserts that every result is byte-identical to
+ * the one rendered by a single thread. A builder, transformer or XPath engine shared by mistake
+ * between threads shows up here as a wrong document, not only as a slower run.
+ *
+ * @author Diego Silva <diego.silva at apuntesdejava.com>
+ */
+final class XmlConcurrencyCheck {
+
+    private static final int DOCUMENTS = 64;
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 200;
+    private static final int MAX_REPORTED = 10;
+
+    private XmlConcurrencyCheck() {
+    }
+
+    /**
+     * @param workingFolder folder of the documents
+     * @return failed assertions, empty if every thread got the expected documents
+     * @throws IOException if the documents could not be written
+     */
+    static List<String> run(Path workingFolder) throws IOException {
+        Files.createDirectories(workingFolder);
+        var paths = new Path[DOCUMENTS];
+        var expected = new byte[DOCUMENTS][];
+        for (var i = 0; i < DOCUMENTS; i++) {
+            paths[i] = workingFolder.resolve("pom-%02d.xml".formatted(i));
+            Files.write(paths[i], render(build(i)));
+            expected[i] = render(DocumentXmlUtil.openDocument(paths[i]).orElseThrow(
+                () -> new IOException("could not parse the documents")));
+        }
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (var thread = 0; thread < THREADS; thread++) {
+                var offset = thread;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var iteration = 0; iteration < ITERATIONS; iteration++) {
+                        var index = (offset * 7 + iteration) % DOCUMENTS;
+                        var parsed = DocumentXmlUtil.openDocument(paths[index]).orElse(null);
+                        if (parsed == null) {
+                            failures.add("%s could not be parsed".formatted(paths[index]));
+                            continue;
+                        }
+                        var artifactId = DocumentXmlUtil.listElementsByFilter(parsed,
+                            "/project/artifactId").get(0).getTextContent();
+                        if (!artifactId(index).equals(artifactId)) {
+                            failures.add("%s queried as %s".formatted(paths[index], artifactId));
+                        }
+                        if (!Arrays.equals(expected[index], render(parsed))) {
+                            failures.add("%s rendered differently after parsing".formatted(
+                                paths[index]));
+                        }
+                        if (!Arrays.equals(expected[index], render(build(index)))) {
+                            failures.add("%s rendered differently when built".formatted(
+                                paths[index]));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.add("interrupted");
+        } catch (ExecutionException e) {
+            failures.add("a thread failed: " + e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return failures.stream()
+            .limit(MAX_REPORTED)
+            .map(failure -> "XML concurrency: " + failure)
+            .toList();
+    }
+
+    private static Document build(int index) throws IOException {
+        try {
+            var document = DocumentXmlUtil.newDocument();
+            var project = ElementBuilder.newInstance("project")
+                .addAttribute("xmlns", "http://maven.apache.org/POM/4.0.0")
+                .addChild(ElementBuilder.newInstance("modelVersion").setTextContent("4.0.0"))
+                .addChild(ElementBuilder.newInstance("groupId").setTextContent("com.example"))
+                .addChild(ElementBuilder.newInstance("artifactId").setTextContent(artifactId(
+                    index)))
+                .addChild(ElementBuilder.newInstance("description").setTextContent(
+                    "module %d of R&D <scale>".formatted(index)));
+            var dependencies = ElementBuilder.newInstance("dependencies");
+            for (var i = 0; i < index % 5; i++) {
+                dependencies.addChild(ElementBuilder.newInstance("dependency")
+                    .addChild(ElementBuilder.newInstance("groupId").setTextContent("com.example"))
+                    .addChild(ElementBuilder.newInstance("artifactId").setTextContent(artifactId(
+                        i)))
+                    .addChild(ElementBuilder.newInstance("version").setTextContent("1.0." + i)));
+            }
+            document.appendChild(project.addChild(dependencies).build(document));
+            return document;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] render(Document document) throws IOException {
+        try {
+            return DocumentXmlUtil.renderDocument(document, Map.of());
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String artifactId(int index) {
+        return "module-" + index;
+    }
+}